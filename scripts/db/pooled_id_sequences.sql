@@ -0,0 +1,27 @@
+-- Pooled id sequences for adventure, user_favourites and users (PostgreSQL).
+--
+-- The entities now take ids from <table>_seq with allocationSize 50 instead of IDENTITY, which
+-- lets Hibernate batch INSERTs. Tables created by earlier builds (ddl-auto=update) need the
+-- sequences created and moved past their current ids before the new build starts.
+--
+-- Run once by hand before upgrading (the schema is managed by ddl-auto, there is no migration
+-- tool); safe to run more than once:
+--   psql "$DATABASE_URL" -f scripts/db/pooled_id_sequences.sql
+
+CREATE SEQUENCE IF NOT EXISTS adventure_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS user_favourites_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+
+-- Pooled optimizer: each nextval is the top of a 50-id block, so the next block starts above
+-- the value set here. Never move a sequence backwards (a re-run after ids were handed out).
+SELECT setval('adventure_seq',
+    GREATEST((SELECT COALESCE(MAX(id), 1) FROM adventure), (SELECT last_value FROM adventure_seq)));
+SELECT setval('user_favourites_seq',
+    GREATEST((SELECT COALESCE(MAX(id), 1) FROM user_favourites), (SELECT last_value FROM user_favourites_seq)));
+SELECT setval('users_seq',
+    GREATEST((SELECT COALESCE(MAX(id), 1) FROM users), (SELECT last_value FROM users_seq)));
+
+-- Ids are always supplied by the application now
+ALTER TABLE adventure ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE user_favourites ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
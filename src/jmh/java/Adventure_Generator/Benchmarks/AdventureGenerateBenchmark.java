@@ -0,0 +1,117 @@
+package Adventure_generator.Benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Adventure_generator.Catalog.AdventureCatalog;
+import Adventure_generator.Catalog.CatalogSource;
+import Adventure_generator.POJO.AdventureIdea;
+import Adventure_generator.Service.AdventureCatalogService;
+import Adventure_generator.Service.AdventureService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * AdventureService.generateAdventure (catalog mode, no Gemini) at several catalog sizes.
+ *
+ * The catalog is synthetic: catalogSize ideas spread over the five moods and the
+ * clear/rain/snow/any weathers of adventures.json, a third of them long-distance.
+ * Every op asks for a different (mood, weather, distance) combination from a fixed rotation.
+ *
+ * Benchmarks:
+ * - generate: AdventureService.generateAdventure with the pre-bucketed AdventureCatalog
+ * - streamFilter: previous implementation, stream filter over the whole idea list per call
+ *
+ * Run:
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="AdventureGenerateBenchmark -prof gc -rf json -rff target/jmh-generate.json"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdventureGenerateBenchmark {
+
+    private static final String[] MOODS = {"happy", "relaxed", "energetic", "romantic", "neutral"};
+    private static final String[] WEATHERS = {"clear", "rain", "snow", "any"};
+    private static final int ROTATION = 64;
+
+    @Param({"100", "1000", "10000"})
+    private int catalogSize;
+
+    private AdventureService adventureService;
+    private List<AdventureIdea> ideas;
+
+    private final String[] moods = new String[ROTATION];
+    private final String[] weathers = new String[ROTATION];
+    private final boolean[] longDistances = new boolean[ROTATION];
+    private int next;
+
+    @Setup
+    public void setup() {
+        ideas = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            AdventureIdea idea = new AdventureIdea();
+            idea.setMood(MOODS[i % MOODS.length]);
+            idea.setWeather(WEATHERS[(i / MOODS.length) % WEATHERS.length]);
+            idea.setDistance(i % 3 == 0 ? AdventureCatalog.LONG_DISTANCE : null);
+            idea.setAdventure("Adventure idea #" + i);
+            ideas.add(idea);
+        }
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        adventureService = new AdventureService();
+        ReflectionTestUtils.setField(adventureService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(adventureService, "initMetrics");
+        AdventureCatalogService catalogService = new AdventureCatalogService();
+        ReflectionTestUtils.setField(catalogService, "catalogSource", CatalogSource.of("synthetic", ideas));
+        ReflectionTestUtils.setField(catalogService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(catalogService, "initMetrics");
+        catalogService.reload("benchmark");
+        ReflectionTestUtils.setField(adventureService, "catalogService", catalogService);
+
+        // Requested weather is always concrete, "any" ideas are merged in by the lookup
+        for (int i = 0; i < ROTATION; i++) {
+            moods[i] = MOODS[i % MOODS.length];
+            weathers[i] = WEATHERS[i % (WEATHERS.length - 1)];
+            longDistances[i] = i % 4 == 0;
+        }
+    }
+
+    @Benchmark
+    public String generate() {
+        int i = next++ & (ROTATION - 1);
+        return adventureService.generateAdventure(moods[i], weathers[i], longDistances[i], null);
+    }
+
+    @Benchmark
+    public String streamFilter() {
+        int i = next++ & (ROTATION - 1);
+        String mood = moods[i];
+        String weather = weathers[i];
+        boolean longDistance = longDistances[i];
+        List<AdventureIdea> filtered = ideas.stream()
+            .filter(a -> a.getMood().equalsIgnoreCase(mood)
+                && (a.getWeather().equalsIgnoreCase(weather) || a.getWeather().equalsIgnoreCase("any")))
+            .filter(a -> longDistance ? "long-distance".equalsIgnoreCase(a.getDistance()) : a.getDistance() == null)
+            .toList();
+        if (filtered.isEmpty()) {
+            return "No adventure found for this mood, weather, and preference!";
+        }
+        return filtered.get(ThreadLocalRandom.current().nextInt(filtered.size())).getAdventure();
+    }
+}
@@ -0,0 +1,161 @@
+package Adventure_generator.Benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import Adventure_generator.AdventureGeneratorApplication;
+import Adventure_generator.Entity.Adventure;
+import Adventure_generator.Entity.User;
+import Adventure_generator.Repository.AdventureRepository;
+import Adventure_generator.Repository.UserRepository;
+import Adventure_generator.Service.AdventureService;
+
+/**
+ * Adventure insert throughput with pooled sequence ids, against in-memory H2 (test profile)
+ * or, with -Dbench.datasource.url, a real PostgreSQL.
+ *
+ * Benchmarks:
+ * - bulkImport: IMPORT_SIZE adventures in one saveAll transaction. batchSize=1 is the
+ *   unbatched baseline (one INSERT round trip per row, as with IDENTITY); batchSize=50 uses
+ *   hibernate.jdbc.batch_size with ids taken 50 at a time from adventure_seq
+ * - generate: one AdventureService.saveAdventure per op, the per-request path of /generate,
+ *   synchronous (writeBehind=false) or through AdventureWriteBehind (writeBehind=true)
+ *
+ * H2 in-process has no network round trips, so batching shows little there. Point the
+ * benchmark at PostgreSQL to measure it (the schema is created and dropped per fork, so use
+ * a scratch database).
+ *
+ * Run:
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="AdventureInsertBenchmark -rf json -rff target/jmh-inserts.json"
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="AdventureInsertBenchmark -jvmArgsAppend
+ *   '-Dbench.datasource.url=jdbc:postgresql://localhost:5432/bench -Dbench.datasource.username=bench -Dbench.datasource.password=bench'"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdventureInsertBenchmark {
+
+    static final int IMPORT_SIZE = 1000;
+
+    /** PostgreSQL JDBC URL to run against; unset means in-memory H2. */
+    static final String POSTGRES_URL = System.getProperty("bench.datasource.url");
+
+    @State(Scope.Benchmark)
+    public static class ImportState {
+
+        @Param({"1", "50"})
+        public int batchSize;
+
+        ConfigurableApplicationContext context;
+        AdventureRepository adventureRepository;
+        User user;
+
+        @Setup
+        public void start() {
+            context = startContext("import" + batchSize, "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+            adventureRepository = context.getBean(AdventureRepository.class);
+            user = benchUser(context);
+        }
+
+        @TearDown(Level.Iteration)
+        public void clear() {
+            context.getBean(JdbcTemplate.class).update("DELETE FROM adventure");
+        }
+
+        @TearDown
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class GenerateState {
+
+        @Param({"false", "true"})
+        public boolean writeBehind;
+
+        ConfigurableApplicationContext context;
+        AdventureService adventureService;
+        User user;
+
+        @Setup
+        public void start() {
+            context = startContext("generate" + writeBehind, "adventure.write-behind.enabled=" + writeBehind);
+            adventureService = context.getBean(AdventureService.class);
+            user = benchUser(context);
+        }
+
+        @TearDown
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public List<Adventure> bulkImport(ImportState state) {
+        List<Adventure> adventures = new ArrayList<>(IMPORT_SIZE);
+        for (int i = 0; i < IMPORT_SIZE; i++) {
+            adventures.add(new Adventure("Imported adventure " + i, state.user, "happy", "clear", false));
+        }
+        return state.adventureRepository.saveAll(adventures);
+    }
+
+    @Benchmark
+    public Adventure generate(GenerateState state) {
+        return state.adventureService.saveAdventure("Generated adventure", state.user, "happy", "clear", false);
+    }
+
+    private static ConfigurableApplicationContext startContext(String database, String... properties) {
+        // Command-line args, so they win over application-test.properties
+        List<String> args = new ArrayList<>();
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        if (POSTGRES_URL == null) {
+            args.add("--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+        } else {
+            args.add("--spring.datasource.url=" + POSTGRES_URL);
+            args.add("--spring.datasource.driver-class-name=org.postgresql.Driver");
+            args.add("--spring.datasource.username=" + System.getProperty("bench.datasource.username", "postgres"));
+            args.add("--spring.datasource.password=" + System.getProperty("bench.datasource.password", ""));
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect");
+        }
+        args.add("--logging.level.root=WARN");
+        args.add("--spring.main.banner-mode=off");
+        return new SpringApplicationBuilder(AdventureGeneratorApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles("test")
+            .run(args.toArray(String[]::new));
+    }
+
+    private static User benchUser(ConfigurableApplicationContext context) {
+        User user = new User();
+        user.setEmail("bench@test.com");
+        user.setUserName("benchUser");
+        user.setPassword("password");
+        return context.getBean(UserRepository.class).save(user);
+    }
+}
@@ -0,0 +1,82 @@
+package Adventure_generator.Benchmarks;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import Adventure_generator.Catalog.AdventureSelector;
+import Adventure_generator.Catalog.DailyAdventureSelector;
+import Adventure_generator.Catalog.RandomAdventureSelector;
+
+/**
+ * Compares bucket selection strategies under thread contention.
+ * 
+ * Benchmarks:
+ * - mathRandom: previous implementation, (int)(Math.random() * size) on one shared Random
+ * - threadLocalRandom: RandomAdventureSelector (default mode)
+ * - dailySeeded: DailyAdventureSelector (deterministic mode)
+ * 
+ * Run all three at 1, 8 and 64 threads (one JSON file per thread count in target/):
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.main=Adventure_generator.Benchmarks.AdventureSelectionBenchmark -Djmh.args=
+ * 
+ * Or a single thread count through the JMH launcher:
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="AdventureSelectionBenchmark -t 8 -rf json"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdventureSelectionBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 8, 64};
+
+    @Param({"7"})
+    private int bucketSize;
+
+    private final AdventureSelector random = new RandomAdventureSelector();
+    private final AdventureSelector daily = new DailyAdventureSelector(Clock.systemUTC());
+
+    @Benchmark
+    public int mathRandom() {
+        return (int) (Math.random() * bucketSize);
+    }
+
+    @Benchmark
+    public int threadLocalRandom() {
+        return random.select(bucketSize, 42L, "happy", "clear", false);
+    }
+
+    @Benchmark
+    public int dailySeeded() {
+        return daily.select(bucketSize, 42L, "happy", "clear", false);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREAD_COUNTS) {
+            Options options = new OptionsBuilder()
+                .include(AdventureSelectionBenchmark.class.getSimpleName())
+                .threads(threads)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-selection-" + threads + "t.json")
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package Adventure_generator.Benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import Adventure_generator.Service.GeminiAdventureService;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * GeminiAdventureService payload handling, the CPU work around every Gemini round trip,
+ * on recorded-shape responses (src/jmh/resources/gemini).
+ *
+ * Benchmarks:
+ * - buildRequestBody: prompt + generationConfig into the request JSON (Gson tree, then toJson)
+ * - extractText: candidates[0].content.parts[0].text out of the response, plus code-fence cleanup
+ *   and recording usageMetadata token counts
+ *
+ * Payloads: a single narration, a fenced mood-prediction JSON, a fenced five-idea batch.
+ *
+ * Both methods are private; they are called through MethodHandles resolved once in setup,
+ * so no per-call reflection cost is measured.
+ *
+ * Run:
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="GeminiPayloadBenchmark -prof gc -rf json -rff target/jmh-gemini-payload.json"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeminiPayloadBenchmark {
+
+    /** Recorded response, only used by extractText. */
+    @State(Scope.Benchmark)
+    public static class Response {
+
+        @Param({"single-narration", "mood-json", "batch-five"})
+        public String payload;
+
+        String body;
+
+        @Setup
+        public void load() {
+            try (InputStream in = getClass().getResourceAsStream("/gemini/" + payload + ".json")) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private GeminiAdventureService service;
+    private MethodHandle buildRequestBody;
+    private MethodHandle extractText;
+    private String prompt;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        service = new GeminiAdventureService(WebClient.create(), new SimpleMeterRegistry(),
+            CircuitBreaker.ofDefaults("gemini"));
+        ReflectionTestUtils.setField(service, "temperature", 0.9);
+        ReflectionTestUtils.setField(service, "maxTokens", 500);
+        ReflectionTestUtils.setField(service, "topP", 0.95);
+        ReflectionTestUtils.setField(service, "topK", 40);
+
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(GeminiAdventureService.class, MethodHandles.lookup());
+        buildRequestBody = lookup.findVirtual(GeminiAdventureService.class, "buildRequestBody",
+            MethodType.methodType(String.class, String.class));
+        extractText = lookup.findVirtual(GeminiAdventureService.class, "extractText",
+            MethodType.methodType(String.class, String.class, String.class));
+        MethodHandle buildAdventurePrompt = lookup.findVirtual(GeminiAdventureService.class, "buildAdventurePrompt",
+            MethodType.methodType(String.class, String.class, String.class, boolean.class));
+
+        try {
+            prompt = (String) buildAdventurePrompt.invoke(service, "happy", "clear", false);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public String buildRequestBody() throws Throwable {
+        return (String) buildRequestBody.invokeExact(service, prompt);
+    }
+
+    @Benchmark
+    public String extractText(Response response) throws Throwable {
+        return (String) extractText.invokeExact(service, "chat", response.body);
+    }
+}
@@ -0,0 +1,136 @@
+package Adventure_generator.Benchmarks;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Adventure_generator.Config.JwtAuthenticationFilter;
+import Adventure_generator.DTOs.Response.UserData;
+import Adventure_generator.Util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * JwtAuthenticationFilter end to end: header parsing, token verification, principal
+ * construction and SecurityContext population, as run once per authenticated request.
+ *
+ * Benchmarks:
+ * - bearerToken: "Authorization: Bearer" with a token already verified (JwtUtil cache hit),
+ *   the steady state for a logged-in client
+ * - firstSightToken: cycles through TOKEN_POOL distinct tokens against a filter whose JwtUtil
+ *   cache holds only a few, so the signature is verified on every op (new session, cache miss)
+ * - anonymous: no Authorization header, filter passes straight through
+ *
+ * The downstream chain is a no-op and the SecurityContext is cleared after every op,
+ * as SecurityContextHolderFilter does at the end of a real request.
+ *
+ * Run:
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="JwtAuthenticationFilterBenchmark -prof gc -rf json -rff target/jmh-jwt-filter.json"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET =
+        "benchmark_secret_key_only_must_be_at_least_512_bits_long_otherwise_HS512_will_fail_add_more_chars";
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {};
+    private static final int TOKEN_POOL = 4096;
+
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter coldFilter;
+    private MockHttpServletRequest bearerRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private final MockHttpServletRequest[] firstSightRequests = new MockHttpServletRequest[TOKEN_POOL];
+    private MockHttpServletResponse response;
+    private int next;
+
+    @Setup
+    public void setup() {
+        JwtUtil jwtUtil = jwtUtil(1000L);
+        filter = filter(jwtUtil);
+        coldFilter = filter(jwtUtil(16L));
+
+        bearerRequest = request("Bearer " + jwtUtil.generateToken(user(0)));
+        anonymousRequest = request(null);
+        for (int i = 0; i < TOKEN_POOL; i++) {
+            firstSightRequests[i] = request("Bearer " + jwtUtil.generateToken(user(i + 1)));
+        }
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication bearerToken() throws Exception {
+        return filterOnce(filter, bearerRequest);
+    }
+
+    @Benchmark
+    public Authentication firstSightToken() throws Exception {
+        return filterOnce(coldFilter, firstSightRequests[next++ & (TOKEN_POOL - 1)]);
+    }
+
+    @Benchmark
+    public Authentication anonymous() throws Exception {
+        return filterOnce(filter, anonymousRequest);
+    }
+
+    private Authentication filterOnce(JwtAuthenticationFilter filter, MockHttpServletRequest request)
+            throws ServletException, IOException {
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static JwtUtil jwtUtil(long cacheMaxSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "signingKeyId", "primary");
+        ReflectionTestUtils.setField(jwtUtil, "verificationKeys", "");
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", cacheMaxSize);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    private static JwtAuthenticationFilter filter(JwtUtil jwtUtil) {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        return filter;
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/adventures/history");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+
+    private static UserData user(int id) {
+        return new UserData(id, "bench" + id + "@test.com", "BenchUser" + id, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,114 @@
+package Adventure_generator.Benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Adventure_generator.DTOs.Response.UserData;
+import Adventure_generator.Util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * JWT generate/validate throughput, before and after precomputing the key and parser.
+ *
+ * Benchmarks:
+ * - legacyGenerate / legacyParse: previous implementation, new SecretKeySpec (and JwtParser) per call
+ * - generate: JwtUtil.generateToken with the precomputed signing key
+ * - sharedParserParse: the pre-built kid-resolving parser, cache bypassed (first sight of a token)
+ * - verifyCached: JwtUtil.verifyToken for a token already verified (repeat request)
+ *
+ * Run:
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="JwtBenchmark -prof gc -rf json -rff target/jmh-jwt.json"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET =
+        "benchmark_secret_key_only_must_be_at_least_512_bits_long_otherwise_HS512_will_fail_add_more_chars";
+
+    private final UserData userData = new UserData(1, "bench@test.com", "BenchUser", LocalDateTime.now());
+
+    private JwtUtil jwtUtil;
+    private JwtParser sharedParser;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "signingKeyId", "primary");
+        ReflectionTestUtils.setField(jwtUtil, "verificationKeys", "2025-01:" + SECRET.replace('b', 'c'));
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 1000L);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+
+        sharedParser = (JwtParser) ReflectionTestUtils.getField(jwtUtil, "jwtParser");
+        token = jwtUtil.generateToken(userData);
+        jwtUtil.verifyToken(token);
+    }
+
+    @Benchmark
+    public String legacyGenerate() {
+        return Jwts.builder()
+            .setClaims(new HashMap<>())
+            .setSubject(userData.getUserName())
+            .setIssuedAt(new Date(System.currentTimeMillis()))
+            .setExpiration(new Date(System.currentTimeMillis() + JwtUtil.JWT_TOKEN_VALIDITY))
+            .signWith(legacyKey(), SignatureAlgorithm.HS512)
+            .compact();
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(userData);
+    }
+
+    @Benchmark
+    public Claims legacyParse() {
+        return Jwts.parserBuilder()
+            .setSigningKey(legacyKey())
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+    }
+
+    @Benchmark
+    public Claims sharedParserParse() {
+        return sharedParser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return jwtUtil.verifyToken(token);
+    }
+
+    private static SecretKey legacyKey() {
+        return new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), SignatureAlgorithm.HS512.getJcaName());
+    }
+}
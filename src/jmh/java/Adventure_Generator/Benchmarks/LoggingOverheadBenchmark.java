@@ -0,0 +1,188 @@
+package Adventure_generator.Benchmarks;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Adventure_generator.Catalog.AdventureCatalog;
+import Adventure_generator.Catalog.ClasspathCatalogSource;
+import Adventure_generator.Config.JwtAuthenticationFilter;
+import Adventure_generator.DTOs.Response.UserData;
+import Adventure_generator.Service.AdventureCatalogService;
+import Adventure_generator.Service.AdventureService;
+import Adventure_generator.Util.JwtUtil;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Logging cost on the generate request path (JwtAuthenticationFilter + AdventureService.generateAdventure),
+ * with Adventure_generator at INFO vs DEBUG.
+ *
+ * Logback is set up as in production (logback-spring.xml): Spring Boot's console pattern behind an
+ * AsyncAppender, neverBlock, queue 8192. The console is replaced by a discarding stream so the
+ * numbers are formatting + enqueue + encoding, not terminal speed.
+ *
+ * Benchmarks:
+ * - request: filter + catalog generate as they log now (level-guarded, sampled, token redacted)
+ * - requestWithLegacyLogging: the same work plus the eight unguarded debug statements the two
+ *   classes used to make per request (full Authorization header, four lines per generate)
+ *
+ * At INFO the two should match; at DEBUG the gap is what debug logging used to cost per request.
+ *
+ * Run:
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="LoggingOverheadBenchmark -prof gc -rf json -rff target/jmh-logging.json"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingOverheadBenchmark {
+
+    private static final String SECRET =
+        "benchmark_secret_key_only_must_be_at_least_512_bits_long_otherwise_HS512_will_fail_add_more_chars";
+    private static final String PATTERN =
+        "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {};
+
+    private static final Logger filterLogger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    private static final Logger serviceLogger = LoggerFactory.getLogger(AdventureService.class);
+
+    @Param({"INFO", "DEBUG"})
+    private String level;
+
+    private LoggerContext loggerContext;
+    private JwtAuthenticationFilter filter;
+    private AdventureService adventureService;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private int catalogSize;
+    private int bucketSize;
+
+    @Setup
+    public void setup() {
+        loggerContext = configureLogback(level);
+
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "signingKeyId", "primary");
+        ReflectionTestUtils.setField(jwtUtil, "verificationKeys", "");
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 1000L);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+
+        request = new MockHttpServletRequest("POST", "/api/adventures/generate");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(
+            new UserData(42L, "bench@test.com", "BenchUser", LocalDateTime.now())));
+        response = new MockHttpServletResponse();
+
+        AdventureCatalogService catalogService = new AdventureCatalogService();
+        ReflectionTestUtils.setField(catalogService, "catalogSource", new ClasspathCatalogSource("/adventures.json"));
+        ReflectionTestUtils.setField(catalogService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(catalogService, "initMetrics");
+        catalogService.reload("benchmark");
+        adventureService = new AdventureService();
+        ReflectionTestUtils.setField(adventureService, "catalogService", catalogService);
+        ReflectionTestUtils.setField(adventureService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(adventureService, "initMetrics");
+        AdventureCatalog catalog = catalogService.current().catalog();
+        catalogSize = catalog.size();
+        bucketSize = catalog.lookup("happy", "clear", false).size();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loggerContext.stop(); // drains the async queue
+    }
+
+    @Benchmark
+    public String request() throws Exception {
+        filterOnce();
+        return adventureService.generateAdventure("happy", "clear", false, 42L);
+    }
+
+    @Benchmark
+    public String requestWithLegacyLogging() throws Exception {
+        String header = request.getHeader("Authorization");
+        filterLogger.debug("JwtAuthenticationFilter - Request URI: {}", request.getRequestURI());
+        filterLogger.debug("JwtAuthenticationFilter - Authorization header: {}", header);
+        filterOnce();
+        filterLogger.debug("JwtAuthenticationFilter - Extracted username: {}", "BenchUser");
+        filterLogger.debug("JwtAuthenticationFilter - Token validated successfully for user: {}", "BenchUser");
+
+        serviceLogger.debug("generateAdventure called with mood={}, weather={}, longDistance={}", "happy", "clear", false);
+        serviceLogger.debug("Total adventures loaded: {}", catalogSize);
+        String adventure = adventureService.generateAdventure("happy", "clear", false, 42L);
+        serviceLogger.debug("Matching adventures count: {}", bucketSize);
+        serviceLogger.debug("Selected adventure: {}", adventure);
+        return adventure;
+    }
+
+    private void filterOnce() throws Exception {
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /** Production-shaped Logback: console pattern encoder behind a non-blocking AsyncAppender. */
+    private static LoggerContext configureLogback(String level) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setName("DISCARD");
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC");
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.addAppender(sink);
+        async.start();
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(async);
+        context.getLogger("Adventure_generator").setLevel(ch.qos.logback.classic.Level.toLevel(level));
+        return context;
+    }
+}
@@ -0,0 +1,217 @@
+package Adventure_generator.Benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import Adventure_generator.AdventureGeneratorApplication;
+import Adventure_generator.DTOs.Response.UserData;
+import Adventure_generator.Entity.User;
+import Adventure_generator.Repository.UserRepository;
+import Adventure_generator.Util.JwtUtil;
+
+/**
+ * Load comparison of platform-thread vs virtual-thread servlet mode (spring.threads.virtual.enabled).
+ *
+ * Starts the full app (test profile, H2, random port) once per mode, with Gemini and
+ * OpenWeatherMap replaced by a local stub that answers after upstreamDelayMs, then fires
+ * `concurrency` simultaneous authenticated requests per scenario and reports wall time,
+ * throughput and latency percentiles.
+ *
+ * Scenarios:
+ * - generate: POST /api/adventures/generate with aiGenerated=true (async Gemini call, then JPA save)
+ * - chat: POST /api/adventures/chat with a unique message per request (no single-flight coalescing)
+ * - weather: GET /api/weather at a distinct grid cell per request (blocking WebClient call on
+ *   the request thread, cache miss every time)
+ *
+ * Not JMH: one timed round after a warm-up round, since the interesting number is how the
+ * server copes with a burst, not steady-state per-op cost. Virtual mode needs Java 21+.
+ *
+ * Run:
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.main=Adventure_generator.Benchmarks.VirtualThreadLoadTest \
+ *     -Djmh.args="concurrency=1000 upstreamDelayMs=300 scenarios=generate,chat,weather"
+ */
+public final class VirtualThreadLoadTest {
+
+    private VirtualThreadLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = Arrays.stream(args)
+            .map(arg -> arg.split("=", 2))
+            .collect(Collectors.toMap(kv -> kv[0], kv -> kv.length > 1 ? kv[1] : ""));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "1000"));
+        long upstreamDelayMs = Long.parseLong(options.getOrDefault("upstreamDelayMs", "300"));
+        List<String> scenarios = List.of(options.getOrDefault("scenarios", "generate,chat,weather").split(","));
+
+        HttpServer stub = startUpstreamStub(upstreamDelayMs);
+        try {
+            System.out.printf("%-9s %-9s %8s %7s %9s %9s %8s %8s %8s%n",
+                "threads", "scenario", "requests", "errors", "wall ms", "req/s", "p50 ms", "p99 ms", "max ms");
+            for (boolean virtual : new boolean[] {false, true}) {
+                if (virtual && Runtime.version().feature() < 21) {
+                    System.out.println("virtual   skipped, needs Java 21+ (running " + Runtime.version() + ")");
+                    continue;
+                }
+                runMode(virtual, stub.getAddress().getPort(), concurrency, scenarios);
+            }
+        } finally {
+            stub.stop(0);
+        }
+    }
+
+    private static void runMode(boolean virtual, int stubPort, int concurrency, List<String> scenarios) throws Exception {
+        String upstream = "http://localhost:" + stubPort;
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AdventureGeneratorApplication.class)
+            .profiles("test")
+            .run( // command-line args, so they win over application-test.properties
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + virtual + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=ERROR",
+                "--gemini.api.url=" + upstream + "/gemini",
+                "--weather.api.url=" + upstream + "/weather",
+                "--gemini.cache.enabled=false",
+                "--gemini.circuit.minimum-calls=1000000",
+                "--gemini.circuit.slow-call-ms=60000",
+                "--http.client.gemini.http2=false",
+                "--http.client.gemini.max-connections=" + concurrency * 2,
+                "--http.client.gemini.pending-acquire-max=" + concurrency * 4,
+                "--http.client.openweather.max-connections=" + concurrency * 2,
+                "--http.client.openweather.pending-acquire-max=" + concurrency * 4);
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            String token = loadTestToken(context);
+            HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newCachedThreadPool())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+            String mode = virtual ? "virtual" : "platform";
+            AtomicInteger sequence = new AtomicInteger();
+            for (String scenario : scenarios) {
+                IntFunction<HttpRequest> requests = i -> request(scenario, "http://localhost:" + port, token, sequence.incrementAndGet());
+                burst(client, requests, Math.min(100, concurrency)); // warm-up
+                Result result = burst(client, requests, concurrency);
+                System.out.printf("%-9s %-9s %8d %7d %9d %9.0f %8d %8d %8d%n",
+                    mode, scenario, concurrency, result.errors, result.wallMs,
+                    concurrency * 1000.0 / Math.max(1, result.wallMs), result.percentile(50), result.percentile(99),
+                    result.percentile(100));
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static HttpRequest request(String scenario, String base, String token, int k) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().header("Authorization", "Bearer " + token)
+            .timeout(Duration.ofSeconds(60));
+        return switch (scenario) {
+            case "generate" -> builder.uri(URI.create(base + "/api/adventures/generate"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                    "{\"mood\":\"happy\",\"weather\":\"clear\",\"longDistance\":false,\"aiGenerated\":true}"))
+                .build();
+            case "chat" -> builder.uri(URI.create(base + "/api/adventures/chat"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"message\":\"load test message " + k + "\"}"))
+                .build();
+            case "weather" -> builder.uri(URI.create(base + "/api/weather?lat=" + (-80 + (k / 300) * 0.5)
+                    + "&lon=" + (-150 + (k % 300) * 0.5)))
+                .GET()
+                .build();
+            default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+        };
+    }
+
+    private static Result burst(HttpClient client, IntFunction<HttpRequest> requests, int count) {
+        long[] latencies = new long[count];
+        AtomicInteger errors = new AtomicInteger();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>(count);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            int slot = i;
+            long sent = System.nanoTime();
+            inFlight.add(client.sendAsync(requests.apply(i), HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    latencies[slot] = (System.nanoTime() - sent) / 1_000_000;
+                    if (error != null || response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    }
+                    return null;
+                }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        return new Result((System.nanoTime() - start) / 1_000_000, errors.get(), latencies);
+    }
+
+    private static String loadTestToken(ConfigurableApplicationContext context) {
+        User user = new User();
+        user.setEmail("load@test.com");
+        user.setUserName("loadUser");
+        user.setPassword("password");
+        user = context.getBean(UserRepository.class).save(user);
+        return context.getBean(JwtUtil.class).generateToken(
+            new UserData(user.getId(), user.getEmail(), user.getUserName(), user.getCreatedAt()));
+    }
+
+    /** Gemini and OpenWeatherMap stand-in: fixed delay, canned body. */
+    private static HttpServer startUpstreamStub(long delayMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/gemini", exchange -> respond(exchange, delayMs,
+            "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"Stub adventure: picnic in the park.\"}]}}]}"));
+        server.createContext("/weather", exchange -> respond(exchange, delayMs,
+            "{\"weather\":[{\"main\":\"Clear\",\"description\":\"clear sky\",\"icon\":\"01d\"}],"
+                + "\"main\":{\"temp\":293.15,\"feels_like\":292.0,\"humidity\":40},\"name\":\"Stubville\"}"));
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange, long delayMs, String body) throws IOException {
+        try {
+            exchange.getRequestBody().readAllBytes();
+            Thread.sleep(delayMs);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private record Result(long wallMs, int errors, long[] latencies) {
+        long percentile(int p) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p / 100.0 * sorted.length) - 1)];
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package Adventure_generator.Benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import Adventure_generator.API.OpenWeatherMapDecoder;
+import Adventure_generator.DTOs.Response.WeatherResponse;
+
+/**
+ * Compares OpenWeatherMap payload decoding strategies on recorded responses
+ * (src/jmh/resources/openweather).
+ *
+ * Benchmarks:
+ * - mapDecode: previous implementation, whole body into Map<String, Object> then cast/unbox
+ * - streamingDecode: OpenWeatherMapDecoder, reads the five needed fields and skips the rest
+ *
+ * Run with the GC profiler to see bytes allocated per call (gc.alloc.rate.norm):
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="WeatherDecodeBenchmark -prof gc -rf json -rff target/jmh-weather-decode.json"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeatherDecodeBenchmark {
+
+    @Param({"seattle-rain", "tokyo-clear", "oslo-snow"})
+    private String payload;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] body;
+
+    @Setup
+    public void loadPayload() {
+        try (InputStream in = getClass().getResourceAsStream("/openweather/" + payload + ".json")) {
+            body = in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public WeatherResponse mapDecode() throws IOException {
+        Map<String, Object> rawResponse = objectMapper.readValue(body, Map.class);
+
+        Map<String, Object> main = (Map<String, Object>) rawResponse.get("main");
+        Double tempCelsius = ((Number) main.get("temp")).doubleValue() - 273.15;
+        Double feelsLikeCelsius = ((Number) main.get("feels_like")).doubleValue() - 273.15;
+
+        List<Map<String, Object>> weatherList = (List<Map<String, Object>>) rawResponse.get("weather");
+        Map<String, Object> weather = weatherList.get(0);
+
+        return new WeatherResponse(tempCelsius, (String) weather.get("description"),
+            (String) rawResponse.get("name"), (String) weather.get("icon"), feelsLikeCelsius);
+    }
+
+    @Benchmark
+    public WeatherResponse streamingDecode() {
+        return OpenWeatherMapDecoder.decode(body);
+    }
+}
@@ -0,0 +1,115 @@
+package Adventure_generator.API;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import Adventure_generator.DTOs.Response.WeatherResponse;
+
+/**
+ * Streaming decoder for OpenWeatherMap "current weather" payloads.
+ *
+ * Reads only the fields WeatherResponse needs and skips everything else
+ * without materializing it:
+ * - main.temp, main.feels_like (Kelvin, converted to Celsius)
+ * - weather[0].description, weather[0].icon
+ * - name
+ *
+ * Compared to decoding into Map<String, Object>, no intermediate maps, lists,
+ * boxed numbers or strings for skipped fields are allocated.
+ *
+ * Thread-safe, the underlying JsonFactory is shared.
+ *
+ * @see WeatherApiClient
+ */
+public final class OpenWeatherMapDecoder {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final double KELVIN_OFFSET = 273.15;
+
+    private OpenWeatherMapDecoder() {}
+
+    /**
+     * Decodes a raw OpenWeatherMap response body.
+     *
+     * @param body Raw JSON bytes as received from the API
+     * @return WeatherResponse with temperatures in Celsius
+     * @throws UncheckedIOException if the body is not valid JSON
+     * @throws IllegalStateException if a required field is missing
+     */
+    public static WeatherResponse decode(byte[] body) {
+        try (JsonParser parser = JSON.createParser(body)) {
+            return decode(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed OpenWeatherMap response", e);
+        }
+    }
+
+    private static WeatherResponse decode(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IllegalStateException("Unexpected OpenWeatherMap response: not a JSON object");
+        }
+
+        double temp = Double.NaN;
+        double feelsLike = Double.NaN;
+        String description = null;
+        String icon = null;
+        String name = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "main" -> {
+                    if (value != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        break;
+                    }
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String mainField = parser.currentName();
+                        parser.nextToken();
+                        switch (mainField) {
+                            case "temp" -> temp = parser.getValueAsDouble();
+                            case "feels_like" -> feelsLike = parser.getValueAsDouble();
+                            default -> parser.skipChildren();
+                        }
+                    }
+                }
+                case "weather" -> {
+                    if (value != JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                        break;
+                    }
+                    // Only the first entry is used, the rest of the array is skipped
+                    if (parser.nextToken() == JsonToken.START_OBJECT) {
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String weatherField = parser.currentName();
+                            parser.nextToken();
+                            switch (weatherField) {
+                                case "description" -> description = parser.getValueAsString();
+                                case "icon" -> icon = parser.getValueAsString();
+                                default -> parser.skipChildren();
+                            }
+                        }
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+                case "name" -> name = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (Double.isNaN(temp) || Double.isNaN(feelsLike)) {
+            throw new IllegalStateException("Unexpected OpenWeatherMap response: missing main.temp/main.feels_like");
+        }
+        if (description == null && icon == null) {
+            throw new IllegalStateException("Unexpected OpenWeatherMap response: missing weather[0]");
+        }
+        return new WeatherResponse(temp - KELVIN_OFFSET, description, name, icon, feelsLike - KELVIN_OFFSET);
+    }
+}
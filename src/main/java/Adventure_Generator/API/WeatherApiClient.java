@@ -1,77 +1,124 @@
 package Adventure_generator.API;
 
-import java.util.List;
-import java.util.Map;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import Adventure_generator.DTOs.Response.WeatherResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Mono;
 
 /**
  * API client for OpenWeatherMap weather data service.
  * 
  * Handles HTTP communication with OpenWeatherMap API:
  * - Constructs API requests with coordinates and API key
- * - Parses JSON responses
+ * - Decodes JSON responses with OpenWeatherMapDecoder (streaming, typed)
  * - Converts temperatures from Kelvin to Celsius
  * - Extracts relevant weather data (temp, feels-like, description, icon)
  * 
- * Uses Spring WebClient for reactive HTTP calls.
+ * Uses the pooled openWeatherWebClient (see WebClientConfig) for HTTP calls.
  * API key is injected from application.properties via @Value.
  * 
+ * Metrics: weather.api latency with percentile histogram, tagged outcome=success|error.
+ * Only real API calls are timed, WeatherService cache hits never reach this client.
+ * 
  * @see WeatherResponse
  */
 @Component
 public class WeatherApiClient {
     
     private final WebClient webClient;
-    private static final String BASE_URL = "https://api.openweathermap.org/data/2.5/weather";
 
     @Value("${weather.api.key}")
     private String API_KEY;
 
-    /** Initializes WebClient with OpenWeatherMap base URL */
-    public WeatherApiClient(){
-        this.webClient = WebClient.builder().baseUrl(BASE_URL).build();
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer successTimer;
+    private Timer errorTimer;
+
+    /** Initializes WebClient with the OpenWeatherMap base URL (weather.api.url), on the shared openweather pool */
+    public WeatherApiClient(@Qualifier("openWeatherWebClient") WebClient openWeatherWebClient,
+                            @Value("${weather.api.url:https://api.openweathermap.org/data/2.5/weather}") String baseUrl){
+        this.webClient = openWeatherWebClient.mutate().baseUrl(baseUrl).build();
+    }
+
+    @PostConstruct
+    void initMetrics() {
+        successTimer = apiTimer(meterRegistry, "success");
+        errorTimer = apiTimer(meterRegistry, "error");
     }
 
     /**
      * Fetches current weather data for given geographic coordinates.
      * 
-     * Calls OpenWeatherMap API with lat/lon, parses JSON response,
-     * converts Kelvin to Celsius, and extracts weather details.
+     * Blocks the calling thread until the response arrives, see getWeatherByCoordinatesAsync.
      * 
      * @param latitude Latitude in degrees
      * @param longitude Longitude in degrees
      * @return WeatherResponse with temperature, description, city name, and icon
      */
     public WeatherResponse getWeatherByCoordinates(double latitude, double longitude){
-        String url = String.format("?lat=%.2f&lon=%.2f&appid=%s", latitude,longitude,this.API_KEY);
-
-        // Get raw JSON as a map 
-        Map<String, Object> rawResponse = webClient.get()
-                .uri(url) // sets the endpoint
-                .retrieve()     //prepare 
-                .bodyToMono(Map.class) // Json as a map
-                .block();
-
-        // Extracting only what we need
-        Map<String, Object> main = (Map<String,Object>) rawResponse.get("main");
-        Double tempKelvin = ((Number) main.get("temp")).doubleValue();
-        Double tempCelsius = tempKelvin - 273.15;
-        Double feelsLikeKelvin = ((Number) main.get("feels_like")).doubleValue();
-        Double feelsLikeCelsius = feelsLikeKelvin - 273.15;
-
-        List<Map<String,Object>> weatherList = (List<Map<String, Object>>)rawResponse.get("weather");
-        Map<String,Object> weather = weatherList.get(0);
-        String description = (String) weather.get("description");
-        String icon = (String) weather.get("icon");
-
-        String name = (String) rawResponse.get("name");
-
-        return new WeatherResponse(tempCelsius, description,name,icon,feelsLikeCelsius);
+        return getWeatherByCoordinatesAsync(latitude, longitude).block();
+    }
+
+    /**
+     * Non-blocking variant of getWeatherByCoordinates.
+     * 
+     * Calls OpenWeatherMap API with lat/lon and decodes the raw body with
+     * OpenWeatherMapDecoder, which streams over the JSON, converts Kelvin to Celsius
+     * and extracts only the weather details we need.
+     * 
+     * @param latitude Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @return Mono emitting the WeatherResponse, or an error for an empty or failed response
+     */
+    public Mono<WeatherResponse> getWeatherByCoordinatesAsync(double latitude, double longitude){
+        return getWeatherByCoordinatesAsync(BigDecimal.valueOf(latitude).setScale(2, RoundingMode.HALF_UP),
+                BigDecimal.valueOf(longitude).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Variant of getWeatherByCoordinatesAsync that sends the coordinates exactly as given.
+     * 
+     * Used by WeatherService to query a rounded cache cell at the cell's own precision.
+     * BigDecimal.toPlainString is locale independent, so the query never gets "47,61".
+     * 
+     * @param latitude Latitude in degrees, sent with its scale as decimals
+     * @param longitude Longitude in degrees, sent with its scale as decimals
+     * @return Mono emitting the WeatherResponse, or an error for an empty or failed response
+     */
+    public Mono<WeatherResponse> getWeatherByCoordinatesAsync(BigDecimal latitude, BigDecimal longitude){
+        String url = "?lat=" + latitude.toPlainString() + "&lon=" + longitude.toPlainString() + "&appid=" + this.API_KEY;
+
+        // Raw bytes, decoded without building an intermediate Map
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start();
+            return webClient.get()
+                    .uri(url) // sets the endpoint
+                    .retrieve()     //prepare 
+                    .bodyToMono(byte[].class)
+                    .switchIfEmpty(Mono.error(() -> new IllegalStateException("Empty response from OpenWeatherMap")))
+                    .map(OpenWeatherMapDecoder::decode)
+                    .doOnSuccess(weather -> sample.stop(successTimer))
+                    .doOnError(e -> sample.stop(errorTimer));
+        });
+    }
+
+    private static Timer apiTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("weather.api")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
     }
 
 
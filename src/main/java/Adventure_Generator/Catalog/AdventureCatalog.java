@@ -0,0 +1,185 @@
+package Adventure_generator.Catalog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import Adventure_generator.POJO.AdventureIdea;
+
+/**
+ * Immutable, pre-bucketed index over the adventure ideas catalog.
+ *
+ * Built once from the raw AdventureIdea list so lookups on the generate path
+ * don't have to scan and filter the whole catalog on every request.
+ *
+ * Index Layout:
+ * - Moods and weathers are canonicalized (lowercase) and mapped to dense int ids
+ * - One bucket per (mood, weather, distance) combination, stored in a flat list
+ * - Weather "any" entries are pre-merged into every concrete weather bucket
+ * - Unknown weathers (and "any" itself) resolve to a shared slot holding only the "any" entries
+ *
+ * Distance Semantics (same as the original stream filter):
+ * - longDistance = true  → ideas whose distance is "long-distance"
+ * - longDistance = false → ideas without a distance
+ * - Any other distance value is never matched
+ *
+ * Lookup cost: two hash lookups plus one indexed get, no per-request allocation
+ * for already-lowercase input.
+ *
+ * @see AdventureIdea
+ */
+public final class AdventureCatalog {
+
+    /** Weather value that matches every requested weather. */
+    public static final String ANY_WEATHER = "any";
+
+    /** Distance value used for long-distance ideas in adventures.json. */
+    public static final String LONG_DISTANCE = "long-distance";
+
+    /** Catalog with no ideas, every lookup returns an empty bucket. */
+    public static final AdventureCatalog EMPTY = of(List.of());
+
+    private final Map<String, Integer> moodIds;
+    private final Map<String, Integer> weatherIds;
+
+    /** Slot used for "any" and weathers that don't appear in the catalog. */
+    private final int anyWeatherSlot;
+    private final int weatherSlots;
+
+    /** Flat bucket list indexed by ((moodId * weatherSlots) + weatherSlot) * 2 + distance. */
+    private final List<List<String>> buckets;
+    private final int size;
+
+    private AdventureCatalog(Map<String, Integer> moodIds, Map<String, Integer> weatherIds,
+                             List<List<String>> buckets, int size) {
+        this.moodIds = moodIds;
+        this.weatherIds = weatherIds;
+        this.anyWeatherSlot = weatherIds.size();
+        this.weatherSlots = weatherIds.size() + 1;
+        this.buckets = buckets;
+        this.size = size;
+    }
+
+    /**
+     * Builds the index from the raw catalog entries.
+     *
+     * Entries without a mood, weather or adventure text are skipped.
+     *
+     * @param ideas Adventure ideas as loaded from adventures.json
+     * @return Immutable catalog index
+     */
+    public static AdventureCatalog of(List<AdventureIdea> ideas) {
+        Map<String, Integer> moodIds = new HashMap<>();
+        Map<String, Integer> weatherIds = new HashMap<>();
+
+        // First pass: assign dense ids to every mood and concrete weather
+        for (AdventureIdea idea : ideas) {
+            if (!isIndexable(idea)) {
+                continue;
+            }
+            moodIds.putIfAbsent(canonical(idea.getMood()), moodIds.size());
+            String weather = canonical(idea.getWeather());
+            if (!ANY_WEATHER.equals(weather)) {
+                weatherIds.putIfAbsent(weather, weatherIds.size());
+            }
+        }
+
+        int weatherSlots = weatherIds.size() + 1;
+        int bucketCount = moodIds.size() * weatherSlots * 2;
+        List<List<String>> staging = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            staging.add(new ArrayList<>());
+        }
+
+        // Second pass: drop every idea into its bucket(s)
+        int size = 0;
+        for (AdventureIdea idea : ideas) {
+            if (!isIndexable(idea)) {
+                continue;
+            }
+            int distance = distanceSlot(idea.getDistance());
+            if (distance < 0) {
+                continue;
+            }
+            int mood = moodIds.get(canonical(idea.getMood()));
+            String weather = canonical(idea.getWeather());
+            if (ANY_WEATHER.equals(weather)) {
+                // "any" ideas belong to every weather bucket, including the fallback slot
+                for (int slot = 0; slot < weatherSlots; slot++) {
+                    staging.get(bucketIndex(mood, slot, distance, weatherSlots)).add(idea.getAdventure());
+                }
+            } else {
+                staging.get(bucketIndex(mood, weatherIds.get(weather), distance, weatherSlots)).add(idea.getAdventure());
+            }
+            size++;
+        }
+
+        List<List<String>> buckets = new ArrayList<>(bucketCount);
+        for (List<String> bucket : staging) {
+            buckets.add(List.copyOf(bucket));
+        }
+        return new AdventureCatalog(Map.copyOf(moodIds), Map.copyOf(weatherIds),
+            Collections.unmodifiableList(buckets), size);
+    }
+
+    /**
+     * Returns every adventure matching the given preferences.
+     *
+     * The returned list is shared and immutable; callers must not copy it
+     * on the hot path, just index into it.
+     *
+     * @param mood Requested mood (case-insensitive)
+     * @param weather Requested weather (case-insensitive)
+     * @param longDistance Whether long-distance ideas are requested
+     * @return Matching adventure texts, empty list if nothing matches
+     */
+    public List<String> lookup(String mood, String weather, boolean longDistance) {
+        if (mood == null) {
+            return List.of();
+        }
+        Integer moodId = resolve(moodIds, mood);
+        if (moodId == null) {
+            return List.of();
+        }
+        Integer weatherId = weather == null ? null : resolve(weatherIds, weather);
+        int weatherSlot = weatherId != null ? weatherId : anyWeatherSlot;
+        return buckets.get(bucketIndex(moodId, weatherSlot, longDistance ? 1 : 0, weatherSlots));
+    }
+
+    /**
+     * @return Number of ideas that made it into the index
+     */
+    public int size() {
+        return size;
+    }
+
+    // Private Helpers
+    private static boolean isIndexable(AdventureIdea idea) {
+        return idea != null && idea.getMood() != null && idea.getWeather() != null && idea.getAdventure() != null;
+    }
+
+    /** 0 = local (no distance), 1 = long-distance, -1 = not matched by any lookup. */
+    private static int distanceSlot(String distance) {
+        if (distance == null) {
+            return 0;
+        }
+        return LONG_DISTANCE.equalsIgnoreCase(distance) ? 1 : -1;
+    }
+
+    private static int bucketIndex(int moodId, int weatherSlot, int distance, int weatherSlots) {
+        return ((moodId * weatherSlots) + weatherSlot) * 2 + distance;
+    }
+
+    private static String canonical(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Exact match first (clients send lowercase), canonicalize only on a miss. */
+    private static Integer resolve(Map<String, Integer> ids, String value) {
+        Integer id = ids.get(value);
+        return id != null ? id : ids.get(canonical(value));
+    }
+}
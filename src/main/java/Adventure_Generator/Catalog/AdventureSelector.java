@@ -0,0 +1,28 @@
+package Adventure_generator.Catalog;
+
+/**
+ * Strategy for picking one adventure out of a matching catalog bucket.
+ *
+ * Implementations must be thread-safe and allocation-free, they run on
+ * every static-mode generate request.
+ *
+ * Implementations:
+ * - RandomAdventureSelector: uniform pick via ThreadLocalRandom (default)
+ * - DailyAdventureSelector: stable pick per (user, day) for reproducible suggestions
+ *
+ * @see AdventureCatalog#lookup(String, String, boolean)
+ */
+public interface AdventureSelector {
+
+    /**
+     * Picks an index into a bucket of the given size.
+     *
+     * @param bucketSize Number of adventures in the bucket (always > 0)
+     * @param userId Requesting user's ID, null if unknown
+     * @param mood Requested mood
+     * @param weather Requested weather
+     * @param longDistance Whether long-distance ideas were requested
+     * @return Index in range [0, bucketSize)
+     */
+    int select(int bucketSize, Long userId, String mood, String weather, boolean longDistance);
+}
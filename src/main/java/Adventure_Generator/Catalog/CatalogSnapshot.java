@@ -0,0 +1,23 @@
+package Adventure_generator.Catalog;
+
+import java.time.Instant;
+
+/**
+ * One published version of the adventure catalog.
+ *
+ * Immutable, and published as a whole through a single volatile write in
+ * AdventureCatalogService, so a reader sees either the previous snapshot or the new one,
+ * never a partly built index, and never needs a lock. A request should read the snapshot
+ * once and use that reference throughout.
+ *
+ * @param catalog Bucketed index served to generateAdventure
+ * @param version Increments on every successful swap, 0 for the initial empty catalog
+ * @param checksum SHA-256 of the ideas as loaded (hex), identical content has the same checksum
+ * @param source CatalogSource.name() the ideas came from
+ * @param loadedAt When this snapshot was published
+ */
+public record CatalogSnapshot(AdventureCatalog catalog, long version, String checksum, String source, Instant loadedAt) {
+
+    /** Served until the first load succeeds (every lookup misses). */
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(AdventureCatalog.EMPTY, 0, "", "none", Instant.EPOCH);
+}
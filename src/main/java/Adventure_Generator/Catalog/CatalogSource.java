@@ -0,0 +1,74 @@
+package Adventure_generator.Catalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+import Adventure_generator.POJO.AdventureIdea;
+
+/**
+ * Where the adventure ideas catalog is read from.
+ *
+ * Implementations:
+ * - ClasspathCatalogSource - adventures.json bundled in the jar (default, changes need a redeploy)
+ * - FileCatalogSource - a JSON file on disk, watched for changes
+ * - DatabaseCatalogSource - the adventure_catalog table
+ *
+ * AdventureCatalogService calls load() off the request path (startup, change notification,
+ * periodic poll), validates the result and swaps the rebuilt AdventureCatalog in.
+ * A source only has to return the raw ideas; it never builds the index itself.
+ *
+ * @see Adventure_generator.Service.AdventureCatalogService
+ */
+public interface CatalogSource {
+
+    /**
+     * @return Human-readable origin (e.g. "file:/etc/adventures.json"), used in logs and snapshots
+     */
+    String name();
+
+    /**
+     * Reads the full catalog.
+     *
+     * @return Every idea in the source, in a stable order (the snapshot checksum depends on it)
+     * @throws IOException if the source can't be read or parsed; the current catalog is kept
+     */
+    List<AdventureIdea> load() throws IOException;
+
+    /**
+     * Starts pushing change notifications, for sources that can detect changes themselves.
+     * Sources that can't simply rely on the service's periodic poll.
+     *
+     * onChange may be called from any thread and more than once per change (editors often
+     * write a file in several steps); the service debounces it.
+     *
+     * @param onChange Callback to run when the source may have changed
+     * @return Handle that stops watching
+     * @throws IOException if the watch can't be registered
+     */
+    default Closeable watch(Runnable onChange) throws IOException {
+        return () -> {};
+    }
+
+    /**
+     * Fixed in-memory catalog, for tests and benchmarks.
+     *
+     * @param name Source name
+     * @param ideas Ideas returned by every load()
+     * @return Source that never changes
+     */
+    static CatalogSource of(String name, List<AdventureIdea> ideas) {
+        List<AdventureIdea> copy = List.copyOf(ideas);
+        return new CatalogSource() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public List<AdventureIdea> load() {
+                return copy;
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package Adventure_generator.Catalog;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import Adventure_generator.POJO.AdventureIdea;
+
+/**
+ * Catalog bundled on the classpath (adventures.json by default).
+ *
+ * Never changes while the application runs, so there is nothing to watch; it is only
+ * loaded at startup. This is the behaviour the catalog had before sources were pluggable.
+ */
+public class ClasspathCatalogSource implements CatalogSource {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String resource;
+
+    /**
+     * @param resource Absolute classpath resource, e.g. "/adventures.json"
+     */
+    public ClasspathCatalogSource(String resource) {
+        this.resource = resource;
+    }
+
+    @Override
+    public String name() {
+        return "classpath:" + resource;
+    }
+
+    @Override
+    public List<AdventureIdea> load() throws IOException {
+        try (InputStream is = getClass().getResourceAsStream(resource)) {
+            if (is == null) {
+                throw new FileNotFoundException("Classpath resource " + resource + " not found");
+            }
+            return Arrays.asList(MAPPER.readValue(is, AdventureIdea[].class));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package Adventure_generator.Catalog;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Deterministic selector: the same user gets the same adventure for the same
+ * preferences for the whole day, without storing anything.
+ *
+ * Seed = (user ID, epoch day, mood, weather, distance), scrambled with the
+ * SplittableRandom mix function so neighbouring users/days don't pick
+ * neighbouring entries. Mood and weather are hashed case-insensitively to
+ * match the catalog lookup.
+ *
+ * Anonymous requests (no user ID) fall back to a ThreadLocalRandom pick.
+ */
+public class DailyAdventureSelector implements AdventureSelector {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final Clock clock;
+
+    /** Zone offset in millis when the zone never changes offset (e.g. UTC), null otherwise. */
+    private final Long fixedOffsetMillis;
+
+    /**
+     * @param clock Clock (and zone) that decides where the day boundary is
+     */
+    public DailyAdventureSelector(Clock clock) {
+        this.clock = clock;
+        ZoneRules rules = clock.getZone().getRules();
+        this.fixedOffsetMillis = rules.isFixedOffset()
+            ? rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L
+            : null;
+    }
+
+    @Override
+    public int select(int bucketSize, Long userId, String mood, String weather, boolean longDistance) {
+        if (userId == null) {
+            return ThreadLocalRandom.current().nextInt(bucketSize);
+        }
+        long seed = userId * GOLDEN_GAMMA;
+        seed = mix64(seed + epochDay());
+        seed = mix64(seed + caseInsensitiveHash(mood));
+        seed = mix64(seed + caseInsensitiveHash(weather) + (longDistance ? 1 : 0));
+        return (int) ((seed >>> 1) % bucketSize);
+    }
+
+    // Private Helpers
+    /** Current day in the clock's zone, without allocating a LocalDate for fixed-offset zones. */
+    private long epochDay() {
+        if (fixedOffsetMillis != null) {
+            return Math.floorDiv(clock.millis() + fixedOffsetMillis, MILLIS_PER_DAY);
+        }
+        return LocalDate.now(clock).toEpochDay();
+    }
+
+    /** Stafford variant 13 finalizer, same as SplittableRandom.mix64. */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /** String hash over lowercased chars, without allocating a lowercase copy. */
+    private static long caseInsensitiveHash(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long hash = 0;
+        for (int i = 0; i < value.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(value.charAt(i));
+        }
+        return hash;
+    }
+}
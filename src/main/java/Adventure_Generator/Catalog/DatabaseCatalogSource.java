@@ -0,0 +1,49 @@
+package Adventure_generator.Catalog;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.dao.DataAccessException;
+
+import Adventure_generator.Entity.CatalogIdea;
+import Adventure_generator.POJO.AdventureIdea;
+import Adventure_generator.Repository.CatalogIdeaRepository;
+
+/**
+ * Catalog read from the adventure_catalog table.
+ *
+ * There is no change notification from the database, changes are picked up by the
+ * service's periodic poll (adventure.catalog.poll-interval-ms). An unchanged table
+ * produces the same checksum, so a poll costs one SELECT and no rebuild swap.
+ */
+public class DatabaseCatalogSource implements CatalogSource {
+
+    private final CatalogIdeaRepository repository;
+
+    public DatabaseCatalogSource(CatalogIdeaRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public String name() {
+        return "db:adventure_catalog";
+    }
+
+    @Override
+    public List<AdventureIdea> load() throws IOException {
+        try {
+            return repository.findAllByOrderByIdAsc().stream().map(DatabaseCatalogSource::toIdea).toList();
+        } catch (DataAccessException e) {
+            throw new IOException("Failed to read adventure_catalog: " + e.getMessage(), e);
+        }
+    }
+
+    private static AdventureIdea toIdea(CatalogIdea row) {
+        AdventureIdea idea = new AdventureIdea();
+        idea.setMood(row.getMood());
+        idea.setWeather(row.getWeather());
+        idea.setDistance(row.getDistance());
+        idea.setAdventure(row.getAdventure());
+        return idea;
+    }
+}
@@ -0,0 +1,96 @@
+package Adventure_generator.Catalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import Adventure_generator.POJO.AdventureIdea;
+
+/**
+ * Catalog read from a JSON file on disk (same format as adventures.json).
+ *
+ * Changes are picked up through a WatchService on the file's directory, so saving the file
+ * (in place, or writing a temp file and renaming it over, or replacing a Kubernetes ConfigMap
+ * symlink) triggers a reload within the service's debounce delay. Watching the directory
+ * rather than the file is what makes rename-over and symlink swaps visible.
+ *
+ * Some filesystems (NFS, some container bind mounts) don't deliver watch events; the
+ * service's periodic poll covers those.
+ */
+public class FileCatalogSource implements CatalogSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileCatalogSource.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path path;
+
+    /**
+     * @param path Catalog file, must have a parent directory that can be watched
+     */
+    public FileCatalogSource(Path path) {
+        this.path = path.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String name() {
+        return "file:" + path;
+    }
+
+    @Override
+    public List<AdventureIdea> load() throws IOException {
+        return Arrays.asList(MAPPER.readValue(Files.readAllBytes(path), AdventureIdea[].class));
+    }
+
+    @Override
+    public Closeable watch(Runnable onChange) throws IOException {
+        Path directory = path.getParent();
+        Path fileName = path.getFileName();
+        WatchService watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+        Thread watcher = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = watchService.take();
+                    boolean relevant = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        // OVERFLOW (context null) means events were lost, assume ours was one of them.
+                        // Dot-prefixed names are ConfigMap's ..data symlink swaps.
+                        Object context = event.context();
+                        relevant |= context == null || fileName.equals(context) || context.toString().startsWith("..");
+                    }
+                    if (relevant) {
+                        onChange.run();
+                    }
+                    if (!key.reset()) {
+                        logger.warn("Catalog directory {} is no longer watchable, relying on polling", directory);
+                        return;
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // close() was called
+            }
+        }, "catalog-watch");
+        watcher.setDaemon(true);
+        watcher.start();
+
+        return () -> {
+            watchService.close();
+            watcher.interrupt();
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package Adventure_generator.Catalog;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Default selector: uniform random pick using ThreadLocalRandom.
+ *
+ * Unlike Math.random(), which shares one Random instance (and its CAS-updated seed)
+ * across every Tomcat worker thread, each thread gets its own generator so
+ * concurrent requests never contend.
+ */
+public class RandomAdventureSelector implements AdventureSelector {
+
+    @Override
+    public int select(int bucketSize, Long userId, String mood, String weather, boolean longDistance) {
+        return ThreadLocalRandom.current().nextInt(bucketSize);
+    }
+}
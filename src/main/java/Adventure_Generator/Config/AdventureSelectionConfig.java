@@ -0,0 +1,40 @@
+package Adventure_generator.Config;
+
+import java.time.Clock;
+import java.time.ZoneId;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import Adventure_generator.Catalog.AdventureSelector;
+import Adventure_generator.Catalog.DailyAdventureSelector;
+import Adventure_generator.Catalog.RandomAdventureSelector;
+
+/**
+ * Adventure Selection Configuration
+ * 
+ * Chooses how AdventureService picks one adventure out of a matching catalog bucket.
+ * 
+ * Modes (adventure.selection.mode):
+ * - random (default) - ThreadLocalRandom, no contention between request threads
+ * - daily - Stable pick per (user, day, preferences), seeded without a DB read
+ * 
+ * The day boundary for daily mode follows adventure.selection.zone (default UTC).
+ */
+@Configuration
+public class AdventureSelectionConfig {
+
+    @Bean
+    public AdventureSelector adventureSelector(
+            @Value("${adventure.selection.mode:random}") String mode,
+            @Value("${adventure.selection.zone:UTC}") String zone) {
+        return switch (mode.trim().toLowerCase(Locale.ROOT)) {
+            case "random" -> new RandomAdventureSelector();
+            case "daily"  -> new DailyAdventureSelector(Clock.system(ZoneId.of(zone)));
+            default -> throw new IllegalArgumentException(
+                "Unknown adventure.selection.mode '" + mode + "', expected 'random' or 'daily'");
+        };
+    }
+}
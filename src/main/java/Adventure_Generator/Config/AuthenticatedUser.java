@@ -0,0 +1,34 @@
+package Adventure_generator.Config;
+
+import java.io.Serializable;
+import java.security.Principal;
+
+/**
+ * Authenticated User Principal
+ *
+ * Lightweight principal installed by JwtAuthenticationFilter, built entirely from
+ * the verified JWT claims (sub, uid, email) so controllers know who the caller is
+ * without a database lookup.
+ *
+ * Usage:
+ * - userId() feeds id-based queries and UserRepository.getReferenceById (no SELECT)
+ * - getName() returns the username, so Authentication.getName() keeps working
+ *
+ * Tokens issued before the uid claim existed still authenticate with a plain
+ * String username principal.
+ *
+ * The uid is not re-checked against the users table. A user deleted while their token
+ * is still valid fails on the adventure insert's user foreign key, which
+ * AdventureController answers with 401 instead of a 500.
+ *
+ * @param userId User's database ID (uid claim)
+ * @param userName Username (sub claim)
+ * @param email User's email (email claim), may be null
+ */
+public record AuthenticatedUser(long userId, String userName, String email) implements Principal, Serializable {
+
+    @Override
+    public String getName() {
+        return userName;
+    }
+}
@@ -0,0 +1,50 @@
+package Adventure_generator.Config;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import Adventure_generator.Catalog.CatalogSource;
+import Adventure_generator.Catalog.ClasspathCatalogSource;
+import Adventure_generator.Catalog.DatabaseCatalogSource;
+import Adventure_generator.Catalog.FileCatalogSource;
+import Adventure_generator.Repository.CatalogIdeaRepository;
+
+/**
+ * Adventure Catalog Source Configuration
+ * 
+ * Chooses where AdventureCatalogService reads the adventure ideas from.
+ * 
+ * Sources (adventure.catalog.source):
+ * - classpath (default) - bundled resource, adventure.catalog.location defaults to /adventures.json
+ * - file - JSON file at adventure.catalog.location (required), reloaded when it changes on disk
+ * - db - adventure_catalog table, reloaded on the poll interval
+ * 
+ * Reload timing and validation are configured on AdventureCatalogService (adventure.catalog.*).
+ */
+@Configuration
+public class CatalogSourceConfig {
+
+    @Bean
+    public CatalogSource catalogSource(
+            @Value("${adventure.catalog.source:classpath}") String source,
+            @Value("${adventure.catalog.location:}") String location,
+            ObjectProvider<CatalogIdeaRepository> catalogIdeaRepository) {
+        return switch (source.trim().toLowerCase(Locale.ROOT)) {
+            case "classpath" -> new ClasspathCatalogSource(location.isBlank() ? "/adventures.json" : location);
+            case "file" -> {
+                if (location.isBlank()) {
+                    throw new IllegalArgumentException("adventure.catalog.source=file needs adventure.catalog.location");
+                }
+                yield new FileCatalogSource(Path.of(location));
+            }
+            case "db" -> new DatabaseCatalogSource(catalogIdeaRepository.getObject());
+            default -> throw new IllegalArgumentException(
+                "Unknown adventure.catalog.source '" + source + "', expected 'classpath', 'file' or 'db'");
+        };
+    }
+}
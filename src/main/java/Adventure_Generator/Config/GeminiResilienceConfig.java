@@ -0,0 +1,60 @@
+package Adventure_generator.Config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.SlidingWindowType;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Gemini Resilience Configuration
+ *
+ * Circuit breaker guarding every call GeminiAdventureService makes to the Gemini API.
+ *
+ * Behaviour:
+ * - Closed: calls go through, outcomes are recorded in a rolling time window
+ * - Open: once the failure rate or slow call rate crosses its threshold, calls are
+ *   rejected immediately (CallNotPermittedException) and callers fall back to the static catalog
+ * - Half-open: after the open wait, a few probe calls decide whether to close again
+ *
+ * Timeouts from the per-call deadline (gemini.timeout-ms) count as failures.
+ *
+ * Metrics: resilience4j.circuitbreaker.* tagged with name=gemini.
+ */
+@Configuration
+public class GeminiResilienceConfig {
+
+    @Bean
+    public CircuitBreaker geminiCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${gemini.circuit.window-seconds:30}") int windowSeconds,
+            @Value("${gemini.circuit.minimum-calls:10}") int minimumCalls,
+            @Value("${gemini.circuit.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${gemini.circuit.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+            @Value("${gemini.circuit.slow-call-ms:5000}") long slowCallMillis,
+            @Value("${gemini.circuit.open-wait-ms:30000}") long openWaitMillis,
+            @Value("${gemini.circuit.half-open-calls:3}") int halfOpenCalls) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+            .slidingWindowType(SlidingWindowType.TIME_BASED)
+            .slidingWindowSize(windowSeconds)
+            .minimumNumberOfCalls(minimumCalls)
+            .failureRateThreshold(failureRateThreshold)
+            .slowCallRateThreshold(slowCallRateThreshold)
+            .slowCallDurationThreshold(Duration.ofMillis(slowCallMillis))
+            .waitDurationInOpenState(Duration.ofMillis(openWaitMillis))
+            .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+            .automaticTransitionFromOpenToHalfOpenEnabled(false)
+            .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker("gemini");
+    }
+}
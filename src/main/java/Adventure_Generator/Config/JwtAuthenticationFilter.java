@@ -12,6 +12,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import Adventure_generator.Util.JwtUtil;
+import Adventure_generator.Util.LogRateLimiter;
+import Adventure_generator.Util.RedactedToken;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,16 +29,23 @@ import jakarta.servlet.http.HttpServletResponse;
  * 
  * Filter Flow:
  * 1. Extracts JWT token from "Authorization: Bearer {token}" header
- * 2. Validates token signature and expiration
- * 3. Extracts username from token claims
- * 4. Sets UsernamePasswordAuthenticationToken in SecurityContext
+ * 2. Validates token signature and expiration once (JwtUtil.verifyToken, cached per token)
+ * 3. Extracts username from the verified claims
+ * 4. Sets UsernamePasswordAuthenticationToken in SecurityContext, with an AuthenticatedUser
+ *    principal (id, username, email from claims) so controllers need no user lookup
  * 5. Grants ROLE_USER authority to authenticated users
  * 
  * Error Handling:
  * - Returns 401 Unauthorized for invalid/expired tokens
- * - Logs validation failures with stack traces
+ * - Logs validation failures as one warn line (no stack trace), at most FAILURE_LOGS_PER_SECOND,
+ *   with a count of the ones suppressed; the reason breakdown is in the auth.jwt.failures metric
  * - Allows anonymous access if no token present
  * 
+ * Logging:
+ * - One debug line per request (URI, redacted Authorization header), sampled to
+ *   REQUEST_DEBUG_PER_SECOND so enabling debug in production doesn't log every request
+ * - The token itself is never logged, see RedactedToken
+ * 
  * @author Astra K. Nguyen
  * @version 1.0.0
  * @since 2026-01-28
@@ -46,36 +56,57 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    private static final int REQUEST_DEBUG_PER_SECOND = 20;
+    private static final int FAILURE_LOGS_PER_SECOND = 5;
+    private static final LogRateLimiter requestDebug = new LogRateLimiter(REQUEST_DEBUG_PER_SECOND);
+    private static final LogRateLimiter failureLog = new LogRateLimiter(FAILURE_LOGS_PER_SECOND);
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
         throws IOException, ServletException{
             // get Auth header
             String httpHeader = request.getHeader("Authorization");
-            
-            logger.debug("JwtAuthenticationFilter - Request URI: {}", request.getRequestURI());
-            logger.debug("JwtAuthenticationFilter - Authorization header: {}", httpHeader);
+            // Level check first: with debug off this is the only logging cost per request
+            boolean debug = logger.isDebugEnabled() && requestDebug.tryAcquire();
+            if (debug) {
+                logger.debug("JwtAuthenticationFilter - uri={} authorization={}",
+                    request.getRequestURI(), RedactedToken.of(httpHeader));
+            }
 
             if (httpHeader != null && httpHeader.startsWith("Bearer ")){
                 String token = httpHeader.substring(7); // Remove "Bearer "
 
                 try{
-                    String username = jwtUtil.getUsernameFromToken(token);
-                    logger.debug("JwtAuthenticationFilter - Extracted username: {}", username);
-                    if(jwtUtil.validateToken(token, username)){
-                        logger.debug("JwtAuthenticationFilter - Token validated successfully for user: {}", username);
-                        // Represents an authenticated user 
+                    // Verified once (signature + expiry), repeat tokens are served from JwtUtil's cache
+                    Claims claims = jwtUtil.verifyToken(token);
+                    String username = claims.getSubject();
+                    if(username != null){
+                        if (debug) {
+                            logger.debug("JwtAuthenticationFilter - authenticated user={}", username);
+                        }
+                        // Represents an authenticated user, id comes from the uid claim when present
+                        Number userId = claims.get(JwtUtil.USER_ID_CLAIM, Number.class);
+                        Object principal = userId != null
+                            ? new AuthenticatedUser(userId.longValue(), username, claims.get(JwtUtil.EMAIL_CLAIM, String.class))
+                            : username; // token issued before uid was embedded
                         UsernamePasswordAuthenticationToken authUser = 
                         new UsernamePasswordAuthenticationToken
-                        (username,
+                        (principal,
                         null, // Credentials 
                         Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")) // Authorities 
                         );
                         SecurityContextHolder.getContext().setAuthentication(authUser); // Allow access to authenticated user
                     } else {
-                        logger.warn("JwtAuthenticationFilter - Token validation failed for username: {}", username);
+                        logger.warn("JwtAuthenticationFilter - Token has no subject, ignoring it");
                     }
                 }catch(Exception e){
-                    logger.error("JWT validation failed: {}", e.getMessage(), e);
+                    // Any client can send garbage tokens, so keep this bounded and stack-free.
+                    // Reason code and type only: jjwt messages can contain the token's decoded header/claims
+                    if (failureLog.tryAcquire()) {
+                        logger.warn("JWT validation failed uri={} reason={} type={} suppressed={}",
+                            request.getRequestURI(), JwtUtil.failureReason(e), e.getClass().getSimpleName(),
+                            failureLog.drainSuppressed());
+                    }
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     response.setContentType("application/json");
                     response.getWriter().write("{\"error\": \"Invalid or expired token\"}");
@@ -24,6 +24,8 @@ package Adventure_generator.Config;
  * @since 2026-01-28
  */
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -51,6 +53,8 @@ public class SecurityConfig{
             )
             .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches (Mono-returning AI endpoints) were already authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**", "/login.html", "/home.html", "/profile.html", "/styles.css", "/js/**", "/").permitAll()
                 .anyRequest().authenticated()
             );
@@ -0,0 +1,68 @@
+package Adventure_generator.Config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Threading Configuration
+ *
+ * Request threads spend most of their time waiting: JPA/JDBC calls, the blocking
+ * WeatherApiClient call, and waiting on the BCrypt executor. Virtual threads make that
+ * waiting cheap, so the servlet stack can run on them.
+ *
+ * Modes (spring.threads.virtual.enabled, requires Java 21):
+ * - false (default) - Tomcat's platform-thread pool (server.tomcat.threads.max), Reactor
+ *   boundedElastic for blocking work after async Gemini calls
+ * - true - Spring Boot runs Tomcat requests, applicationTaskExecutor (@Async) and
+ *   scheduling on virtual threads; blockingScheduler below follows it
+ *
+ * Unaffected on purpose:
+ * - PasswordHasher keeps its bounded platform pool; BCrypt is CPU-bound and the pool
+ *   size is what sheds load
+ * - WebClient/Netty event loops stay on platform threads
+ *
+ * Pinning (Java 21-23: a virtual thread blocking inside synchronized holds its carrier):
+ * - Our synchronized blocks never wrap I/O (NarrationCache pools are in-memory only);
+ *   AdventureWriteBehind takes id blocks from the database under a ReentrantLock
+ * - A Caffeine loader runs inside ConcurrentHashMap.compute, so a blocking loader pins for
+ *   the whole load and callers of the same bin pin while they wait. WeatherService uses an
+ *   async cache for that reason (a 300 ms OpenWeatherMap call per miss pinned every carrier
+ *   in load tests). UserLookupCache and FavouriteService loaders are single indexed queries
+ *   and stay synchronous
+ * - Java 24+ removes synchronized pinning (JEP 491)
+ * - Diagnose with -Djdk.tracePinnedThreads=short or the jdk.VirtualThreadPinned JFR event
+ *
+ * Open-session-in-view is off (spring.jpa.open-in-view=false): with it, an async request held
+ * a JDBC connection from its first repository call until the response completed, and the
+ * save on blockingScheduler then waited for a second one, exhausting the pool at 1k requests.
+ *
+ * With virtual threads the JDBC pool becomes the concurrency limit, size
+ * spring.datasource.hikari.maximum-pool-size for the database rather than for Tomcat.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    /**
+     * Scheduler for blocking work (JPA) continuing after a non-blocking call.
+     * Virtual threads from Boot's applicationTaskExecutor in virtual mode, boundedElastic otherwise.
+     */
+    @Bean
+    public Scheduler blockingScheduler(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+            ObjectProvider<AsyncTaskExecutor> applicationTaskExecutor) {
+        AsyncTaskExecutor executor = applicationTaskExecutor.getIfAvailable();
+        if (virtualThreads && executor != null) {
+            return Schedulers.fromExecutor(executor);
+        }
+        return Schedulers.boundedElastic();
+    }
+}
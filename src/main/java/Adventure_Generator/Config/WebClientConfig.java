@@ -0,0 +1,96 @@
+package Adventure_generator.Config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Outbound HTTP Client Configuration
+ *
+ * One tuned WebClient per upstream, each with its own named Reactor Netty connection pool,
+ * so a slow upstream can't exhaust connections meant for another one.
+ *
+ * Beans:
+ * - geminiWebClient - Google Gemini API (GeminiAdventureService)
+ * - openWeatherWebClient - OpenWeatherMap API (WeatherApiClient)
+ *
+ * Settings per upstream (http.client.{gemini|openweather}.*):
+ * - max-connections, pending-acquire-max, pending-acquire-timeout-ms - pool size and queue
+ * - max-idle-ms, max-life-ms - keep-alive tuning, idle connections are evicted in the background
+ *   before the upstream closes them
+ * - connect-timeout-ms, read-timeout-ms, write-timeout-ms, response-timeout-ms - timeouts
+ * - http2 - negotiate HTTP/2 over TLS (ALPN) with HTTP/1.1 fallback
+ *
+ * Pool metrics (reactor.netty.connection.provider.* tagged with the pool name): active, idle,
+ * pending and total connections, exposed through the actuator metrics endpoint.
+ */
+@Configuration
+public class WebClientConfig {
+
+    @Bean
+    public WebClient geminiWebClient(WebClient.Builder builder, Environment env) {
+        return builder.clone()
+            .clientConnector(new ReactorClientHttpConnector(httpClient("gemini", env, 50, 200, 15000, true)))
+            .build();
+    }
+
+    @Bean
+    public WebClient openWeatherWebClient(WebClient.Builder builder, Environment env) {
+        return builder.clone()
+            .clientConnector(new ReactorClientHttpConnector(httpClient("openweather", env, 100, 500, 3000, false)))
+            .build();
+    }
+
+    // Private Helpers
+    /**
+     * Builds a Reactor Netty client with a dedicated connection pool named after the upstream.
+     * Properties under http.client.{name}.* override the given defaults.
+     */
+    private static HttpClient httpClient(String name, Environment env, int defaultMaxConnections,
+                                         int defaultPendingAcquireMax, long defaultResponseTimeoutMs,
+                                         boolean defaultHttp2) {
+        String prefix = "http.client." + name + ".";
+
+        ConnectionProvider pool = ConnectionProvider.builder(name)
+            .maxConnections(env.getProperty(prefix + "max-connections", Integer.class, defaultMaxConnections))
+            .pendingAcquireMaxCount(env.getProperty(prefix + "pending-acquire-max", Integer.class, defaultPendingAcquireMax))
+            .pendingAcquireTimeout(Duration.ofMillis(env.getProperty(prefix + "pending-acquire-timeout-ms", Long.class, 2000L)))
+            .maxIdleTime(Duration.ofMillis(env.getProperty(prefix + "max-idle-ms", Long.class, 30000L)))
+            .maxLifeTime(Duration.ofMillis(env.getProperty(prefix + "max-life-ms", Long.class, 300000L)))
+            .evictInBackground(Duration.ofSeconds(30))
+            .metrics(true)
+            .build();
+
+        int connectTimeoutMs = env.getProperty(prefix + "connect-timeout-ms", Integer.class, 2000);
+        long readTimeoutMs = env.getProperty(prefix + "read-timeout-ms", Long.class, defaultResponseTimeoutMs);
+        long writeTimeoutMs = env.getProperty(prefix + "write-timeout-ms", Long.class, 5000L);
+        long responseTimeoutMs = env.getProperty(prefix + "response-timeout-ms", Long.class, defaultResponseTimeoutMs);
+
+        HttpClient client = HttpClient.create(pool)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+            .option(ChannelOption.SO_KEEPALIVE, true)
+            .keepAlive(true)
+            .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+            // Added per request (not per connection) so idle pooled connections aren't closed by them
+            .doOnRequest((request, connection) -> connection
+                .addHandlerLast(new ReadTimeoutHandler(readTimeoutMs, TimeUnit.MILLISECONDS))
+                .addHandlerLast(new WriteTimeoutHandler(writeTimeoutMs, TimeUnit.MILLISECONDS)));
+
+        if (env.getProperty(prefix + "http2", Boolean.class, defaultHttp2)) {
+            client = client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+        return client;
+    }
+}
@@ -1,10 +1,16 @@
 package Adventure_generator.Controller;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -12,16 +18,32 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import Adventure_generator.Config.AuthenticatedUser;
 import Adventure_generator.DTOs.Requests.AdventureRequest;
+import Adventure_generator.DTOs.Response.AdventureHistoryPage;
 import Adventure_generator.DTOs.Response.AdventureResponse;
+import Adventure_generator.DTOs.Response.AdventureSummary;
 import Adventure_generator.Entity.Adventure;
 import Adventure_generator.Entity.User;
 import Adventure_generator.Repository.UserRepository;
 import Adventure_generator.Service.AdventureService;
+import Adventure_generator.Service.FavouriteService;
 
 import Adventure_generator.Service.GeminiAdventureService;
+import Adventure_generator.Service.UserLookupCache;
+import Adventure_generator.Util.LogRateLimiter;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * REST controller for adventure generation and management endpoints.
@@ -29,6 +51,8 @@ import Adventure_generator.Service.GeminiAdventureService;
  * Provides HTTP endpoints for:
  * - POST /api/adventures/generate - Generate personalized adventure
  * - GET /api/adventures/history - Retrieve user's adventure history
+ * - POST /api/adventures/chat - AI adventure planning chat
+ * - POST /api/adventures/mood/predict - AI mood prediction
  * 
  * Security:
  * - All endpoints require JWT authentication
@@ -38,9 +62,19 @@ import Adventure_generator.Service.GeminiAdventureService;
  * Request Flow:
  * 1. Client sends JWT token in Authorization header
  * 2. JwtAuthenticationFilter validates token and sets Authentication
- * 3. Controller extracts username from SecurityContext
+ * 3. Controller reads the AuthenticatedUser (user id, username) from SecurityContext
  * 4. Service layer processes business logic
  * 5. Response returned as JSON
+ * 
+ * AI endpoints return Mono so Spring MVC completes them asynchronously instead of
+ * holding a Tomcat worker for the whole Gemini round trip. Static /generate does its
+ * work on the request thread and returns an already completed Mono.
+ * Failures answer 500, or 503 while the Gemini circuit is open, with an error body in
+ * the endpoint's success shape (AdventureResponse, {"reply": ...}, mood JSON).
+ * 
+ * Metrics: adventures.generate - end-to-end generate latency (text + save) with percentile
+ * histogram, tagged mode=static|ai|fallback (AI requested, Gemini failed, catalog used)
+ * and outcome=success|error.
  */
 @RestController
 @RequestMapping(path = "/api/adventures")
@@ -48,17 +82,46 @@ public class AdventureController {
 
 
     private static final Logger logger = LoggerFactory.getLogger(AdventureController.class);
+    private static final LogRateLimiter errorLog = new LogRateLimiter(5);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
    
     private final AdventureService adventureService;
     private final GeminiAdventureService geminiAdventureService;
     private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
+    private final FavouriteService favouriteService;
+    private final Scheduler blockingScheduler;
+    private final MeterRegistry meterRegistry;
+
+    /** mode tag values for adventures.generate. */
+    private enum Mode {
+        STATIC, AI, FALLBACK;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    // adventures.generate timers, registered once in the constructor
+    private final EnumMap<Mode, Timer> generateSuccess = new EnumMap<>(Mode.class);
+    private final EnumMap<Mode, Timer> generateError = new EnumMap<>(Mode.class);
 
     public AdventureController(AdventureService adventureService,
                                GeminiAdventureService geminiAdventureService,
-                               UserRepository userRepository) {
+                               UserRepository userRepository,
+                               UserLookupCache userLookupCache,
+                               FavouriteService favouriteService,
+                               @Qualifier("blockingScheduler") Scheduler blockingScheduler,
+                               MeterRegistry meterRegistry) {
         this.adventureService = adventureService;
         this.geminiAdventureService = geminiAdventureService;
         this.userRepository = userRepository;
+        this.userLookupCache = userLookupCache;
+        this.favouriteService = favouriteService;
+        this.blockingScheduler = blockingScheduler;
+        this.meterRegistry = meterRegistry;
+        for (Mode mode : Mode.values()) {
+            generateSuccess.put(mode, generateTimer(mode, "success"));
+            generateError.put(mode, generateTimer(mode, "error"));
+        }
     }
 
     /**
@@ -67,116 +130,244 @@ public class AdventureController {
      * Requires authenticated user. Generates adventure text filtered by mood, weather,
      * and distance preference, then saves to database associated with current user.
      * 
+     * AI mode is non-blocking: the servlet thread is released while Gemini responds,
+     * and the save runs on the blocking scheduler (see ThreadingConfig) once the text is available.
+     * Static mode generates and saves on the request thread and returns Mono.just of the result.
+     * 
      * @param adventureRequest Contains mood, weather, and longDistance preferences
-     * @return ResponseEntity with AdventureResponse (adventure text and ID) or error
+     * @return Mono of ResponseEntity with AdventureResponse (adventure text and ID) or error
      */
     @PostMapping(value = "/generate", produces = "application/json")
-    public ResponseEntity<AdventureResponse> generateAdventure(@RequestBody AdventureRequest adventureRequest) {
+    public Mono<ResponseEntity<AdventureResponse>> generateAdventure(@RequestBody AdventureRequest adventureRequest) {
         String mood = adventureRequest.getMood();
         String weather = adventureRequest.getWeather();
         Boolean longDistance = adventureRequest.getLongDistance();
+        boolean aiMode = Boolean.TRUE.equals(adventureRequest.getAiGenerated());
+        Timer.Sample sample = Timer.start(meterRegistry);
 
         try {
             if (mood != null && weather != null) {
-                // Try Gemini first, fall back to static JSON if unavailable
-                String adventureText;
+                // Get currently authenticated user (on the request thread, SecurityContext is thread-bound)
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                String username = authentication.getName();
+                long userId = currentUserId(authentication);
+                User currentUser = userRepository.getReferenceById(userId); // detached proxy, only its id is used
 
-                if (Boolean.TRUE.equals(adventureRequest.getAiGenerated())) {
-                    // AI Mode — call Gemini
+                if (aiMode) {
+                    // AI Mode — call Gemini, fall back to static JSON if unavailable
                     logger.debug("AI mode enabled — calling Gemini");
-                    try {
-                        adventureText = geminiAdventureService.generateAdventure(
-                            mood, weather, longDistance
-                        );
-                    } catch (Exception e) {
-                        logger.warn("Gemini failed, falling back to static JSON: {}", e.getMessage());
-                        adventureText = adventureService.generateAdventure(mood, weather, longDistance);
-                    }
-                } else {
-                    // Default mode — static JSON
-                    logger.debug("Default mode — using static adventures.json");
-                    adventureText = adventureService.generateAdventure(mood, weather, longDistance);
+                    AtomicBoolean fellBack = new AtomicBoolean();
+                    return geminiAdventureService.generateAdventureAsync(mood, weather, longDistance)
+                        .onErrorResume(e -> {
+                            // Open circuit rejects without touching the network, no need to warn per request
+                            if (e instanceof CallNotPermittedException) {
+                                logger.debug("Gemini circuit open, using static JSON");
+                            } else {
+                                logger.warn("Gemini failed, falling back to static JSON: {}", e.getMessage());
+                            }
+                            fellBack.set(true);
+                            return Mono.fromSupplier(() ->
+                                adventureService.generateAdventure(mood, weather, longDistance, userId));
+                        })
+                        .publishOn(blockingScheduler) // JPA save must not run on the WebClient I/O thread
+                        .map(adventureText -> saveAndRespond(adventureText, currentUser, username, mood, weather, longDistance))
+                        .doOnNext(response -> sample.stop(generateSuccess.get(fellBack.get() ? Mode.FALLBACK : Mode.AI)))
+                        .onErrorResume(e -> {
+                            sample.stop(generateError.get(fellBack.get() ? Mode.FALLBACK : Mode.AI));
+                            return Mono.just(userGone(e, userId) ? userGoneResponse(userId) : generateErrorResponse(e));
+                        });
                 }
 
-                // Get currently authenticated user
-                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-                String username = (String) authentication.getPrincipal();
-                User currentUser = userRepository.findByUserName(username)
-                    .orElseThrow(() -> new RuntimeException("User '" + username + "' not found in database. Please logout and register/login again."));
-                
-                // Save adventure to database
-                Adventure savedAdventure = adventureService.saveAdventure(
-                    adventureText, 
-                    currentUser, 
-                    mood, 
-                    weather, 
-                    longDistance
-                );
-                
-                // Return response with adventure ID
-                AdventureResponse response = new AdventureResponse(
-                    adventureText,
-                    savedAdventure.getId(),
-                    currentUser.getUserName()
-                );
-                return ResponseEntity.ok(response);
+                // Default mode — static JSON
+                logger.debug("Default mode — using static adventures.json");
+                String adventureText = adventureService.generateAdventure(mood, weather, longDistance, userId);
+                ResponseEntity<AdventureResponse> response;
+                try {
+                    response = saveAndRespond(adventureText, currentUser, username, mood, weather, longDistance);
+                } catch (RuntimeException e) {
+                    if (!userGone(e, userId)) {
+                        throw e;
+                    }
+                    sample.stop(generateError.get(Mode.STATIC));
+                    return Mono.just(userGoneResponse(userId));
+                }
+                sample.stop(generateSuccess.get(Mode.STATIC));
+                return Mono.just(response);
             } else {
-                return ResponseEntity.badRequest()
-                    .body(new AdventureResponse("Mood and weather are required.", 0L, "N/A"));
+                return Mono.just(ResponseEntity.badRequest()
+                    .body(new AdventureResponse("Mood and weather are required.", 0L, "N/A")));
             }
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("ERROR in generateAdventure: " + e.getClass().getName() + ": " + e.getMessage());
-            if (e.getCause() != null) {
-                System.err.println("Caused by: " + e.getCause().getClass().getName() + ": " + e.getCause().getMessage());
-            }
-            return ResponseEntity.status(500)
-                .body(new AdventureResponse("An error occurred while generating adventure: " + e.getMessage(), 0L, "N/A"));
+            sample.stop(generateError.get(aiMode ? Mode.AI : Mode.STATIC));
+            return Mono.just(generateErrorResponse(e));
+        }
+    }
+
+    private Timer generateTimer(Mode mode, String outcome) {
+        return Timer.builder("adventures.generate")
+            .tag("mode", mode.tag)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * Resolves the id of the authenticated caller.
+     * 
+     * With an AuthenticatedUser principal (uid claim in the JWT) no lookup is needed. Tokens
+     * without the uid claim fall back to resolving the id by username through UserLookupCache.
+     * 
+     * Callers pair it with UserRepository.getReferenceById, which issues no SQL. Without
+     * open-session-in-view that reference is detached at once, so never call a getter on
+     * it (even getId() would try to initialize it); use this id instead.
+     */
+    private long currentUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.userId();
         }
+        String username = authentication.getName();
+        return userLookupCache.findByUserName(username)
+            .map(UserLookupCache.CachedUser::id)
+            .orElseThrow(() -> new RuntimeException("User '" + username + "' not found in database. Please logout and register/login again."));
+    }
+
+    /**
+     * Whether a save failed because the caller's user row no longer exists.
+     * 
+     * The uid claim is trusted without a lookup, so a user deleted while their JWT is still
+     * valid only shows up when the adventure insert hits the user foreign key. The existence
+     * check runs on this failure path only, so other constraint violations stay 500s.
+     * (With write-behind the insert happens later and the row is dropped by the writer.)
+     */
+    private boolean userGone(Throwable e, long userId) {
+        return (e instanceof DataIntegrityViolationException || e instanceof EntityNotFoundException)
+            && !userRepository.existsById(userId);
+    }
+
+    private static ResponseEntity<AdventureResponse> userGoneResponse(long userId) {
+        logger.info("Rejected generate for deleted user {}", userId);
+        return ResponseEntity.status(401)
+            .body(new AdventureResponse("Your account no longer exists, please log in again.", 0L, "N/A"));
+    }
+
+    /**
+     * Saves a generated adventure and builds the success response.
+     * The username comes from the principal so a lazy User reference is never initialized.
+     */
+    private ResponseEntity<AdventureResponse> saveAndRespond(String adventureText, User currentUser, String username,
+                                                             String mood, String weather, Boolean longDistance) {
+        // Save adventure to database
+        Adventure savedAdventure = adventureService.saveAdventure(
+            adventureText, 
+            currentUser, 
+            mood, 
+            weather, 
+            longDistance
+        );
+        
+        // Return response with adventure ID
+        AdventureResponse response = new AdventureResponse(
+            adventureText,
+            savedAdventure.getId(),
+            username
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    private static ResponseEntity<AdventureResponse> generateErrorResponse(Throwable e) {
+        return errorResponse("generateAdventure", "generating adventure", e,
+            message -> new AdventureResponse(message, 0L, "N/A"));
+    }
+
+    /**
+     * Logs a failed AI/generate request and builds the error response.
+     * Goes through the (async) logger rather than System.err, rate limited so a failing
+     * dependency logs a few stack traces per second instead of one per request.
+     * An open Gemini circuit is expected while Gemini is down: 503, no stack trace.
+     *
+     * @param operation Handler name, for the log
+     * @param action What failed, for the message ("An error occurred while <action>: ...")
+     * @param body Wraps the message in the endpoint's success shape
+     */
+    private static <T> ResponseEntity<T> errorResponse(String operation, String action, Throwable e,
+                                                       Function<String, T> body) {
+        if (e instanceof CallNotPermittedException) {
+            logger.debug("{} rejected, Gemini circuit open", operation);
+            return ResponseEntity.status(503)
+                .body(body.apply("The AI assistant is temporarily unavailable, please try again later."));
+        }
+        if (errorLog.tryAcquire()) {
+            logger.error("{} failed suppressed={}", operation, errorLog.drainSuppressed(), e);
+        }
+        return ResponseEntity.status(500)
+            .body(body.apply("An error occurred while " + action + ": " + e.getMessage()));
     }
     
     /**
-     * Retrieves adventure history for the authenticated user.
+     * Retrieves one page of adventure history for the authenticated user.
      * 
-     * Returns all adventures created by the current user, ordered by creation date
-     * descending (newest first). User identity extracted from JWT token.
+     * Adventures are ordered by creation date descending (newest first). Paging is
+     * keyset based: pass the returned nextCursor to get the next (older) page.
+     * favouriteIds marks which adventures on the page are favourites (no query per row).
+     * User identity extracted from JWT token.
      * 
-     * @return ResponseEntity with List of Adventure entities or 500 on error
+     * @param limit Page size, defaults to adventure.history.default-page-size and is capped at
+     *              adventure.history.max-page-size
+     * @param cursor nextCursor from the previous page, omit for the first page
+     * @return ResponseEntity with AdventureHistoryPage, 400 for a malformed cursor or 500 on error
      */
     @GetMapping(value = "/history", produces = "application/json")
-    public ResponseEntity<List<Adventure>> getUserAdventureHistory() {
+    public ResponseEntity<AdventureHistoryPage> getUserAdventureHistory(
+            @RequestParam(defaultValue = "${adventure.history.default-page-size:20}") int limit,
+            @RequestParam(required = false) String cursor) {
         try {
             // Get currently authenticated user
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = (String) authentication.getPrincipal();
-            User currentUser = userRepository.findByUserName(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+            long userId = currentUserId(authentication);
             
-            // Fetch user's adventures
-            List<Adventure> adventures = adventureService.getUserAdventures(currentUser.getId());
+            // Fetch one page of the user's adventures
+            AdventureHistoryPage page = adventureService.getUserAdventureHistory(userId, cursor, limit);
+            page.setFavouriteIds(favouriteService.favouritedAmong(userId,
+                page.getAdventures().stream().map(AdventureSummary::id).toList()));
             
-            return ResponseEntity.ok(adventures);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.debug("Rejected history cursor: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
-            e.printStackTrace();
+            if (errorLog.tryAcquire()) {
+                logger.error("getUserAdventureHistory failed suppressed={}", errorLog.drainSuppressed(), e);
+            }
             return ResponseEntity.status(500).build();
         }
     }
 
-    // Chat endpoint
+    // Chat endpoint (non-blocking, servlet thread is released while Gemini responds)
+    // Errors keep the {"reply": ...} shape, so the chat shows the message
     @PostMapping(value = "/chat", produces = "application/json")
-    public ResponseEntity<Map<String, String>> chat(@RequestBody Map<String, String> body) {
-        String reply = geminiAdventureService.chat(body.get("message"));
-        return ResponseEntity.ok(Map.of("reply", reply));
+    public Mono<ResponseEntity<Map<String, String>>> chat(@RequestBody Map<String, String> body) {
+        return geminiAdventureService.chatAsync(body.get("message"))
+            .map(reply -> ResponseEntity.ok(Map.of("reply", reply)))
+            .onErrorResume(e -> Mono.just(errorResponse("chat", "chatting", e, message -> Map.of("reply", message))));
     }
 
-    // Mood prediction endpoint
+    // Mood prediction endpoint (non-blocking)
+    // Errors keep the prediction's JSON shape: mood null, confidence 0, the message as reason
     @PostMapping(value = "/mood/predict", produces = "application/json")
-    public ResponseEntity<String> predictMood(@RequestBody Map<String, String> body) {
-        String prediction = geminiAdventureService.predictMood(
+    public Mono<ResponseEntity<String>> predictMood(@RequestBody Map<String, String> body) {
+        return geminiAdventureService.predictMoodAsync(
             body.get("weather"),
             body.get("timeOfDay"),
             body.get("season")
-        );
-        return ResponseEntity.ok(prediction);
+        ).map(ResponseEntity::ok)
+            .onErrorResume(e -> Mono.just(errorResponse("predictMood", "predicting mood", e, AdventureController::moodError)));
+    }
+
+    private static String moodError(String message) {
+        ObjectNode error = MAPPER.createObjectNode();
+        error.putNull("mood");
+        error.put("confidence", 0.0);
+        error.put("reason", message);
+        return error.toString();
     }
 }
@@ -4,6 +4,7 @@ import jakarta.validation.Valid;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +17,7 @@ import Adventure_generator.DTOs.Requests.RegisterRequest;
 import Adventure_generator.DTOs.Response.AuthResponse;
 import Adventure_generator.DTOs.Response.UserData;
 import Adventure_generator.Entity.User;
+import Adventure_generator.Exception.ServiceBusyException;
 import Adventure_generator.Service.AuthenticationService;
 import Adventure_generator.Util.JwtUtil;
 
@@ -31,6 +33,7 @@ import Adventure_generator.Util.JwtUtil;
  * - Password validation and BCrypt encryption via AuthenticationService
  * - JWT token generation on successful authentication
  * - Email uniqueness validation
+ * - 503 + Retry-After when password hashing is saturated (ServiceBusyException)
  * 
  * Response Flow:
  * 1. Client sends registration/login request
@@ -84,6 +87,8 @@ public class AuthController {
             AuthResponse authResponse = new AuthResponse(true, "Registration successful!", token, userData, null);
             return ResponseEntity.status(HttpStatus.CREATED).body(authResponse);
 
+        } catch(ServiceBusyException e){
+            return busyResponse(e);
         } catch(Exception e){
             log.error("Registration failed", e);
             AuthResponse errorAuthResponse = new AuthResponse(false, "Registration failed: " + e.getMessage(), null, null, "REGISTRATION_ERROR");
@@ -124,11 +129,23 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorAuthResponse);
         }
 
+      }catch(ServiceBusyException e){
+        return busyResponse(e);
       }catch(Exception e){
         log.error("Login failed", e);
         AuthResponse errorAuthResponse = new AuthResponse(false, "Login failed: " + e.getMessage(), null,null, "LOGIN_ERROR");
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorAuthResponse);
       }
     }
-    
-} 
\ No newline at end of file
+
+    /**
+     * Builds the 503 response when password hashing is saturated, clients should back off and retry.
+     */
+    private ResponseEntity<AuthResponse> busyResponse(ServiceBusyException e) {
+        log.warn("Auth request shed: {}", e.getMessage());
+        AuthResponse errorAuthResponse = new AuthResponse(false, e.getMessage(), null, null, "SERVER_BUSY");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(errorAuthResponse);
+    }
+}
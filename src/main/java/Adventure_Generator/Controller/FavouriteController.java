@@ -0,0 +1,113 @@
+package Adventure_generator.Controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import Adventure_generator.Config.AuthenticatedUser;
+import Adventure_generator.DTOs.Response.AdventureSummary;
+import Adventure_generator.Exception.NotFoundException;
+import Adventure_generator.Service.FavouriteService;
+import Adventure_generator.Service.UserLookupCache;
+
+/**
+ * REST controller for the authenticated user's favourite adventures.
+ *
+ * Provides HTTP endpoints for:
+ * - GET /api/favourites[?mood=] - List favourites, most recently favourited first
+ * - PUT /api/favourites/{adventureId} - Add a favourite (idempotent)
+ * - DELETE /api/favourites/{adventureId} - Remove a favourite
+ * - GET /api/favourites/{adventureId} - Whether one adventure is a favourite
+ * - GET /api/favourites/status?ids=1,2,3 - Favourite status for several adventures at once
+ *
+ * Security:
+ * - All endpoints require JWT authentication
+ * - Favourites are user-scoped; only the user's own adventures can be favourited
+ *
+ * Errors:
+ * - 404 when the adventure isn't the user's, or isn't a favourite on DELETE
+ * - 400 when status is asked for more ids than a history page holds
+ */
+@RestController
+@RequestMapping(path = "/api/favourites")
+public class FavouriteController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FavouriteController.class);
+
+    private final FavouriteService favouriteService;
+    private final UserLookupCache userLookupCache;
+
+    public FavouriteController(FavouriteService favouriteService, UserLookupCache userLookupCache) {
+        this.favouriteService = favouriteService;
+        this.userLookupCache = userLookupCache;
+    }
+
+    @GetMapping(produces = "application/json")
+    public ResponseEntity<List<AdventureSummary>> listFavourites(@RequestParam(required = false) String mood) {
+        return ResponseEntity.ok(favouriteService.listFavourites(currentUserId(), mood));
+    }
+
+    @PutMapping(value = "/{adventureId}")
+    public ResponseEntity<Void> addFavourite(@PathVariable Long adventureId) {
+        try {
+            favouriteService.addFavourite(currentUserId(), adventureId);
+            return ResponseEntity.noContent().build();
+        } catch (NotFoundException e) {
+            logger.debug("Favourite add rejected: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping(value = "/{adventureId}")
+    public ResponseEntity<Void> removeFavourite(@PathVariable Long adventureId) {
+        try {
+            favouriteService.removeFavourite(currentUserId(), adventureId);
+            return ResponseEntity.noContent().build();
+        } catch (NotFoundException e) {
+            logger.debug("Favourite remove rejected: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping(value = "/{adventureId}", produces = "application/json")
+    public ResponseEntity<Map<String, Boolean>> isFavourite(@PathVariable Long adventureId) {
+        return ResponseEntity.ok(Map.of("favourite", favouriteService.isFavourite(currentUserId(), adventureId)));
+    }
+
+    @GetMapping(value = "/status", produces = "application/json")
+    public ResponseEntity<Map<Long, Boolean>> favouriteStatus(@RequestParam List<Long> ids) {
+        try {
+            Set<Long> favourites = favouriteService.favouritedAmong(currentUserId(), ids);
+            Map<Long, Boolean> status = new LinkedHashMap<>();
+            ids.forEach(id -> status.put(id, favourites.contains(id)));
+            return ResponseEntity.ok(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Private Helpers
+    private long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.userId(); // from the JWT, no user lookup
+        }
+        return userLookupCache.findByUserName(authentication.getName())
+            .map(UserLookupCache.CachedUser::id)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
@@ -0,0 +1,62 @@
+package Adventure_generator.DTOs.Response;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Response DTO for one page of a user's adventure history, newest first.
+ *
+ * Used by:
+ * - GET /api/adventures/history?limit={n}&cursor={nextCursor}
+ *
+ * Paging:
+ * - nextCursor is null on the last page
+ * - Pass nextCursor back unchanged to fetch the following (older) page
+ *
+ * favouriteIds holds the ids of adventures on this page the user has favourited.
+ */
+public class AdventureHistoryPage {
+
+    private List<AdventureSummary> adventures;
+    private String nextCursor;
+    private Set<Long> favouriteIds = Set.of();
+
+    /**
+     * Constructs a new AdventureHistoryPage with all fields.
+     * @param adventures Adventures on this page, newest first
+     * @param nextCursor Opaque cursor for the next page, null if this is the last page
+     */
+    public AdventureHistoryPage(List<AdventureSummary> adventures, String nextCursor) {
+        this.adventures = adventures;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters & Setters
+    public List<AdventureSummary> getAdventures() {
+        return adventures;
+    }
+
+    public void setAdventures(List<AdventureSummary> adventures) {
+        this.adventures = adventures;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Set<Long> getFavouriteIds() {
+        return favouriteIds;
+    }
+
+    public void setFavouriteIds(Set<Long> favouriteIds) {
+        this.favouriteIds = favouriteIds;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,27 @@
+package Adventure_generator.DTOs.Response;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of an adventure for history listings.
+ *
+ * Fetched with a JPQL constructor expression (see AdventureRepository), so only these
+ * columns are selected and no Adventure entity, User proxy or persistence-context entry
+ * is created. Component names keep the JSON shape the history endpoint had when it
+ * serialized Adventure entities directly, minus user and updatedAt.
+ *
+ * @param id Adventure id
+ * @param adventure Adventure text
+ * @param mood Mood the adventure was generated for
+ * @param weather Weather the adventure was generated for
+ * @param isLongDistance Whether the adventure involves long-distance travel
+ * @param createdAt When the adventure was created
+ */
+public record AdventureSummary(
+    Long id,
+    String adventure,
+    String mood,
+    String weather,
+    Boolean isLongDistance,
+    LocalDateTime createdAt
+) {}
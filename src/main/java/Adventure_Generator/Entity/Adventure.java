@@ -8,10 +8,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 
@@ -24,8 +26,9 @@ import jakarta.validation.constraints.NotBlank;
  * 
  * Database Mapping:
  * - Table: adventure
- * - Primary Key: id (auto-generated)
+ * - Primary Key: id (pooled sequence adventure_seq, blocks of 50, shared with AdventureWriteBehind)
  * - Foreign Key: user_id (non-nullable) - Links to the user who generated this adventure
+ * - Index: (user_id, created_at DESC, id DESC) - keyset-paged history
  * 
  * Relationships:
  * - User: Many adventures belong to one user (ManyToOne with LAZY fetch)
@@ -45,10 +48,14 @@ import jakarta.validation.constraints.NotBlank;
  * @see UserFavourite
  */
 @Entity
-@Table(name = "adventure")
+@Table(name = "adventure", indexes = {
+    // Keyset paging of history: WHERE user_id = ? AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC
+    @Index(name = "idx_adventure_user_created_id", columnList = "user_id, created_at DESC, id DESC")
+})
 public class Adventure {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "adventure_seq")
+    @SequenceGenerator(name = "adventure_seq", sequenceName = "adventure_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message="Adventure is required")
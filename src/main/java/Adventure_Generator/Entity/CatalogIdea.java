@@ -0,0 +1,89 @@
+package Adventure_generator.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * CatalogIdea Entity - One adventure idea of the database-backed catalog
+ *
+ * Row form of an adventures.json entry, read by DatabaseCatalogSource when
+ * adventure.catalog.source=db. Edited directly in the database (SQL, admin tooling);
+ * the application only reads it and picks changes up on its next poll.
+ *
+ * Database Mapping:
+ * - Table: adventure_catalog
+ * - Primary Key: id (IDENTITY, so plain INSERTs without an id work; rows are never
+ *   written by the application, so there is nothing to batch)
+ * - distance: null for local ideas, "long-distance" for long-distance ones
+ *
+ * @see Adventure_generator.POJO.AdventureIdea
+ */
+@Entity
+@Table(name = "adventure_catalog")
+public class CatalogIdea {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String mood;
+
+    @Column(nullable = false)
+    private String weather;
+
+    private String distance;
+
+    @Column(nullable = false, length = 1000)
+    private String adventure;
+
+    // CONSTRUCTOR
+    public CatalogIdea() {}
+
+    public CatalogIdea(String mood, String weather, String distance, String adventure) {
+        this.mood = mood;
+        this.weather = weather;
+        this.distance = distance;
+        this.adventure = adventure;
+    }
+
+    // Getters & Setters
+    public Long getId() {
+        return id;
+    }
+
+    public String getMood() {
+        return mood;
+    }
+
+    public void setMood(String mood) {
+        this.mood = mood;
+    }
+
+    public String getWeather() {
+        return weather;
+    }
+
+    public void setWeather(String weather) {
+        this.weather = weather;
+    }
+
+    public String getDistance() {
+        return distance;
+    }
+
+    public void setDistance(String distance) {
+        this.distance = distance;
+    }
+
+    public String getAdventure() {
+        return adventure;
+    }
+
+    public void setAdventure(String adventure) {
+        this.adventure = adventure;
+    }
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 /**
@@ -19,7 +20,7 @@ import jakarta.persistence.Table;
  * 
  * Database Mapping:
  * - Table: users
- * - Primary Key: id (auto-generated)
+ * - Primary Key: id (pooled sequence users_seq, blocks of 50)
  * - Unique Constraints: email, userName
  * 
  * Relationships:
@@ -40,7 +41,8 @@ import jakarta.persistence.Table;
 @Table(name = "\"users\"")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique=true, nullable=false)
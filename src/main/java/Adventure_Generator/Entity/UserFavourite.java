@@ -12,6 +12,7 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 
@@ -24,7 +25,7 @@ import jakarta.persistence.UniqueConstraint;
  * 
  * Database Mapping:
  * - Table: user_favourites
- * - Primary Key: id (auto-generated)
+ * - Primary Key: id (pooled sequence user_favourites_seq, blocks of 50)
  * - Foreign Keys: user_id, adventure_id (both non-nullable)
  * - Unique Constraint: (user_id, adventure_id) prevents duplicate favorites per user
  * - Indexes: B-tree indexes on user_id and adventure_id for optimized queries
@@ -51,7 +52,8 @@ import jakarta.persistence.UniqueConstraint;
 )
 public class UserFavourite {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_favourites_seq")
+    @SequenceGenerator(name = "user_favourites_seq", sequenceName = "user_favourites_seq", allocationSize = 50)
     private Long id; 
 
     /** Foreign key reference to User entity. LAZY loaded to optimize performance. */
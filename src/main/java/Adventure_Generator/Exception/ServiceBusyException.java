@@ -0,0 +1,43 @@
+package Adventure_generator.Exception;
+
+/**
+ * Exception thrown when a bounded resource is saturated and the request is shed.
+ *
+ * Used primarily for returning 503 HTTP responses (with Retry-After) when:
+ * - The password hashing executor queue is full
+ * - A queued hashing task could not start within its wait timeout
+ *
+ * Failing fast keeps request threads free for cheap endpoints during bursts.
+ *
+ * This is a RuntimeException, so it doesn't require explicit throws declarations.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    /** Suggested client back-off in seconds, sent as Retry-After. */
+    private final int retryAfterSeconds;
+
+    /**
+     * Constructs a new ServiceBusyException with the specified detail message.
+     * @param message The detail message explaining which resource is saturated
+     * @param retryAfterSeconds Suggested client back-off in seconds
+     */
+    public ServiceBusyException(String message, int retryAfterSeconds){
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Constructs a new ServiceBusyException with the specified detail message and cause.
+     * @param message The detail message explaining which resource is saturated
+     * @param retryAfterSeconds Suggested client back-off in seconds
+     * @param cause The underlying cause of the exception
+     */
+    public ServiceBusyException(String message, int retryAfterSeconds, Throwable cause){
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,10 +1,15 @@
 package Adventure_generator.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import Adventure_generator.DTOs.Response.AdventureSummary;
 import Adventure_generator.Entity.Adventure;
 
 /**
@@ -15,12 +20,18 @@ import Adventure_generator.Entity.Adventure;
  * - Ordering adventures by creation date
  * - Filtering by user and mood
  * - Checking existence of adventures for a user
+ * - Keyset (cursor) paging of a user's history on (created_at, id), served by
+ *   idx_adventure_user_created_id and projected straight into AdventureSummary
  * 
  * @see Adventure
  */
 @Repository
 public interface AdventureRepository extends JpaRepository<Adventure, Long> {
 
+    /** Constructor-expression select for history pages: only the summary columns, no entities or user join. */
+    String HISTORY_SELECT = "SELECT new Adventure_generator.DTOs.Response.AdventureSummary("
+        + "a.id, a.adventure, a.mood, a.weather, a.isLongDistance, a.createdAt) FROM Adventure a";
+
     /**
      * Find all adventures for a specific user.
      * @param userId The user's ID
@@ -35,6 +46,37 @@ public interface AdventureRepository extends JpaRepository<Adventure, Long> {
      */
     List<Adventure> findByUserIdOrderByCreatedAtDesc(Long userId);
 
+    /**
+     * Check that an adventure exists and belongs to the given user.
+     * @param id The adventure's ID
+     * @param userId The user's ID
+     * @return true if the user owns the adventure
+     */
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    /**
+     * First page of a user's history, newest first.
+     * @param userId The user's ID
+     * @param limit Max rows to return
+     * @return Up to limit summaries ordered by createdAt DESC, id DESC
+     */
+    @Query(HISTORY_SELECT + " WHERE a.user.id = :userId ORDER BY a.createdAt DESC, a.id DESC")
+    List<AdventureSummary> findHistoryFirstPage(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Next page of a user's history: rows strictly older than the cursor row (createdAt, id).
+     * @param userId The user's ID
+     * @param createdAt createdAt of the last row of the previous page
+     * @param id id of the last row of the previous page
+     * @param limit Max rows to return
+     * @return Up to limit summaries ordered by createdAt DESC, id DESC
+     */
+    @Query(HISTORY_SELECT + " WHERE a.user.id = :userId"
+         + " AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id))"
+         + " ORDER BY a.createdAt DESC, a.id DESC")
+    List<AdventureSummary> findHistoryPageBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id, Limit limit);
+
     /**
      * Find adventures for a user filtered by mood preference.
      * @param userId The user's ID
@@ -0,0 +1,23 @@
+package Adventure_generator.Repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import Adventure_generator.Entity.CatalogIdea;
+
+/**
+ * Repository for the database-backed adventure catalog (adventure_catalog).
+ *
+ * @see CatalogIdea
+ * @see Adventure_generator.Catalog.DatabaseCatalogSource
+ */
+@Repository
+public interface CatalogIdeaRepository extends JpaRepository<CatalogIdea, Long> {
+
+    /**
+     * @return Every catalog row, ordered by id so the catalog checksum is stable between polls
+     */
+    List<CatalogIdea> findAllByOrderByIdAsc();
+}
@@ -1,11 +1,18 @@
 package Adventure_generator.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import Adventure_generator.DTOs.Response.AdventureSummary;
 import Adventure_generator.Entity.Adventure;
 import Adventure_generator.Entity.User;
 import Adventure_generator.Entity.UserFavourite;
@@ -17,6 +24,8 @@ import Adventure_generator.Entity.UserFavourite;
  * - Finding favorites by user and adventure combination
  * - Retrieving all favorites for a specific user
  * - Deleting favorite relationships
+ * - Id-only lookups for favourite membership (user_favourites.adventure_id, no adventure join)
+ * - Favourite adventures as AdventureSummary projections
  * 
  * @see UserFavourite
  */
@@ -44,4 +53,45 @@ public interface UserFavoriteRepository extends JpaRepository<UserFavourite, Lon
      * @param adventure The adventure entity
      */
     void deleteByUserAndAdventure(User user, Adventure adventure);
+
+    /**
+     * All adventure ids a user has favourited, read from the join table alone.
+     * @param userId The user's ID
+     * @return Favourited adventure ids, empty set if none
+     */
+    @Query("SELECT f.adventure.id FROM UserFavourite f WHERE f.user.id = :userId")
+    Set<Long> findAdventureIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Which of the given adventures a user has favourited, in a single IN query.
+     * @param userId The user's ID
+     * @param adventureIds Adventure ids to check (non-empty)
+     * @return The subset of adventureIds that are favourites
+     */
+    @Query("SELECT f.adventure.id FROM UserFavourite f WHERE f.user.id = :userId AND f.adventure.id IN :adventureIds")
+    Set<Long> findFavouritedAdventureIds(@Param("userId") Long userId, @Param("adventureIds") Collection<Long> adventureIds);
+
+    /**
+     * A user's favourite adventures, most recently favourited first.
+     * @param userId The user's ID
+     * @param mood Only adventures generated for this mood, or null for all
+     * @return Favourite adventures as summaries
+     */
+    @Query("SELECT new Adventure_generator.DTOs.Response.AdventureSummary("
+         + "a.id, a.adventure, a.mood, a.weather, a.isLongDistance, a.createdAt)"
+         + " FROM UserFavourite f JOIN f.adventure a WHERE f.user.id = :userId"
+         + " AND (:mood IS NULL OR a.mood = :mood)"
+         + " ORDER BY f.createdAt DESC, f.id DESC")
+    List<AdventureSummary> findFavouriteSummaries(@Param("userId") Long userId, @Param("mood") String mood);
+
+    /**
+     * Delete one favourite by ids, without loading the entity.
+     * @param userId The user's ID
+     * @param adventureId The adventure's ID
+     * @return Number of rows deleted (0 or 1)
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserFavourite f WHERE f.user.id = :userId AND f.adventure.id = :adventureId")
+    int deleteByUserIdAndAdventureId(@Param("userId") Long userId, @Param("adventureId") Long adventureId);
 }
@@ -3,7 +3,11 @@ package Adventure_generator.Repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import Adventure_generator.Entity.User;
 
@@ -40,4 +44,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true if email exists, false otherwise
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Replace a password hash, only if it is still the one that was verified.
+     * Used by the background rehash on login, so it never overwrites a password changed meanwhile.
+     * @param id The user's ID
+     * @param oldHash Hash the login was verified against
+     * @param newHash Replacement hash
+     * @return Number of rows updated (0 or 1)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
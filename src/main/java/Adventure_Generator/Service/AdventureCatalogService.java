@@ -0,0 +1,296 @@
+package Adventure_generator.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import Adventure_generator.Catalog.AdventureCatalog;
+import Adventure_generator.Catalog.CatalogSnapshot;
+import Adventure_generator.Catalog.CatalogSource;
+import Adventure_generator.POJO.AdventureIdea;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Owns the live adventure catalog and reloads it from the configured CatalogSource.
+ *
+ * Handles:
+ * - Initial load at startup (an empty catalog is served if it fails, as before)
+ * - Reloads on source change notifications (FileCatalogSource), debounced by
+ *   adventure.catalog.debounce-ms, and on a periodic poll (adventure.catalog.poll-interval-ms, 0 = off)
+ * - Validation before anything is published
+ * - Publishing each new catalog as one immutable CatalogSnapshot through a volatile field
+ *
+ * Behaviour:
+ * - Reloads run on a single background thread, one at a time (a lock serializes the
+ *   poll, the watcher and manual reload() calls). Readers never take that lock:
+ *   current() is a volatile read, and a reader sees the old snapshot or the new one in full.
+ * - Content identical to the live catalog (same SHA-256) is not republished, so
+ *   polling an unchanged source only costs the read
+ * - Validation rejects (and keeps serving the current catalog) when the new catalog
+ *   is empty, has any entry missing mood/weather/adventure or with an unknown distance,
+ *   or would shrink the catalog by more than adventure.catalog.max-shrink-ratio
+ *   (a truncated or half-written file)
+ * - Any load failure (unreadable, malformed JSON, DB down) also keeps the current catalog
+ *
+ * Metrics:
+ * - adventures.catalog.ideas - ideas in the live catalog
+ * - adventures.catalog.version - version of the live snapshot (increments per swap)
+ * - adventures.catalog.age - seconds since the live snapshot was published
+ * - adventures.catalog.reloads - reload attempts, tagged outcome=loaded|unchanged|rejected|failed
+ * - adventures.catalog.reload.duration - read + validate + build time per attempt
+ */
+@Service
+public class AdventureCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdventureCatalogService.class);
+
+    /** Result of one reload attempt. */
+    public enum ReloadOutcome { LOADED, UNCHANGED, REJECTED, FAILED }
+
+    @Autowired
+    private CatalogSource catalogSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${adventure.catalog.poll-interval-ms:60000}")
+    private long pollIntervalMs = 60_000;
+
+    @Value("${adventure.catalog.debounce-ms:500}")
+    private long debounceMs = 500;
+
+    /** Largest fraction of the live catalog a reload may drop before it is rejected. */
+    @Value("${adventure.catalog.max-shrink-ratio:0.5}")
+    private double maxShrinkRatio = 0.5;
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private ScheduledExecutorService reloader;
+    private ScheduledFuture<?> pendingChange;
+    private Closeable watch;
+
+    private final Map<ReloadOutcome, Counter> reloads = new EnumMap<>(ReloadOutcome.class);
+    private Timer reloadTimer;
+
+    @PostConstruct
+    void init() {
+        initMetrics();
+        reload("startup");
+
+        if (pollIntervalMs > 0) {
+            reloader().scheduleWithFixedDelay(() -> reload("poll"), pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        try {
+            watch = catalogSource.watch(this::onSourceChanged);
+        } catch (IOException e) {
+            logger.warn("Can't watch catalog source {}, relying on polling: {}", catalogSource.name(), e.getMessage());
+        }
+    }
+
+    void initMetrics() {
+        Gauge.builder("adventures.catalog.ideas", this, service -> service.snapshot.catalog().size()).register(meterRegistry);
+        Gauge.builder("adventures.catalog.version", this, service -> service.snapshot.version()).register(meterRegistry);
+        Gauge.builder("adventures.catalog.age", this,
+                service -> Duration.between(service.snapshot.loadedAt(), Instant.now()).toSeconds())
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        for (ReloadOutcome outcome : ReloadOutcome.values()) {
+            reloads.put(outcome, Counter.builder("adventures.catalog.reloads")
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry));
+        }
+        reloadTimer = Timer.builder("adventures.catalog.reload.duration").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        if (watch != null) {
+            watch.close();
+        }
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    /**
+     * @return Live catalog snapshot; read it once per request and use that reference
+     */
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * Reads the source, validates it and publishes it if it differs from the live catalog.
+     * Blocks while another reload is running.
+     *
+     * @param trigger What asked for the reload (startup, poll, watch, ...), for the logs
+     * @return What happened; anything but LOADED leaves the live snapshot untouched
+     */
+    public ReloadOutcome reload(String trigger) {
+        reloadLock.lock();
+        try {
+            Timer.Sample sample = Timer.start();
+            ReloadOutcome outcome = doReload(trigger);
+            sample.stop(reloadTimer);
+            reloads.get(outcome).increment();
+            return outcome;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private ReloadOutcome doReload(String trigger) {
+        CatalogSnapshot live = snapshot;
+        List<AdventureIdea> ideas;
+        try {
+            ideas = catalogSource.load();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to load adventure catalog from {} ({}), keeping v{}: {}",
+                catalogSource.name(), trigger, live.version(), e.getMessage());
+            return ReloadOutcome.FAILED;
+        }
+
+        String checksum = checksum(ideas);
+        if (checksum.equals(live.checksum())) {
+            logger.debug("Adventure catalog from {} unchanged ({}), still v{}", catalogSource.name(), trigger, live.version());
+            return ReloadOutcome.UNCHANGED;
+        }
+
+        String problem = validate(ideas, live);
+        if (problem != null) {
+            logger.warn("Rejected adventure catalog from {} ({}), keeping v{}: {}",
+                catalogSource.name(), trigger, live.version(), problem);
+            return ReloadOutcome.REJECTED;
+        }
+
+        // Index fully built before the single volatile write that publishes it
+        CatalogSnapshot next = new CatalogSnapshot(AdventureCatalog.of(ideas), live.version() + 1, checksum,
+            catalogSource.name(), Instant.now());
+        snapshot = next;
+        logger.info("Loaded adventure catalog v{} from {} ({}): {} ideas, checksum {}",
+            next.version(), next.source(), trigger, next.catalog().size(), checksum.substring(0, 12));
+        return ReloadOutcome.LOADED;
+    }
+
+    /**
+     * @return Why the catalog can't be published, or null if it is fine
+     */
+    private String validate(List<AdventureIdea> ideas, CatalogSnapshot live) {
+        if (ideas.isEmpty()) {
+            return "catalog is empty";
+        }
+        int invalid = 0;
+        String firstInvalid = null;
+        for (int i = 0; i < ideas.size(); i++) {
+            String reason = invalidReason(ideas.get(i));
+            if (reason != null) {
+                if (invalid++ == 0) {
+                    firstInvalid = "entry " + i + " " + reason;
+                }
+            }
+        }
+        if (invalid > 0) {
+            return invalid + " invalid entries, first: " + firstInvalid;
+        }
+        int liveSize = live.catalog().size();
+        if (live.version() > 0 && ideas.size() < liveSize * (1 - maxShrinkRatio)) {
+            return "would shrink the catalog from " + liveSize + " to " + ideas.size()
+                + " ideas (adventure.catalog.max-shrink-ratio=" + maxShrinkRatio + ")";
+        }
+        return null;
+    }
+
+    private static String invalidReason(AdventureIdea idea) {
+        if (idea == null) {
+            return "is null";
+        }
+        if (isBlank(idea.getMood())) {
+            return "has no mood";
+        }
+        if (isBlank(idea.getWeather())) {
+            return "has no weather";
+        }
+        if (isBlank(idea.getAdventure())) {
+            return "has no adventure text";
+        }
+        if (idea.getDistance() != null && !AdventureCatalog.LONG_DISTANCE.equalsIgnoreCase(idea.getDistance())) {
+            return "has unknown distance '" + idea.getDistance() + "'";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String checksum(List<AdventureIdea> ideas) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JRE ships SHA-256
+        }
+        for (AdventureIdea idea : ideas) {
+            if (idea == null) {
+                digest.update((byte) 0);
+                continue;
+            }
+            // Unit separator between fields, record separator after each idea
+            for (String field : new String[] {idea.getMood(), idea.getWeather(), idea.getDistance(), idea.getAdventure()}) {
+                if (field != null) {
+                    digest.update(field.getBytes(StandardCharsets.UTF_8));
+                } else {
+                    digest.update((byte) 0); // null distance differs from ""
+                }
+                digest.update((byte) 0x1f);
+            }
+            digest.update((byte) 0x1e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** Collapses a burst of change notifications into one reload, debounceMs after the last. */
+    private synchronized void onSourceChanged() {
+        if (pendingChange != null) {
+            pendingChange.cancel(false);
+        }
+        pendingChange = reloader().schedule(() -> reload("watch"), debounceMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized ScheduledExecutorService reloader() {
+        if (reloader == null) {
+            reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "catalog-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return reloader;
+    }
+}
@@ -1,77 +1,99 @@
 package Adventure_generator.Service;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
+import Adventure_generator.Catalog.AdventureCatalog;
+import Adventure_generator.Catalog.AdventureSelector;
+import Adventure_generator.Catalog.RandomAdventureSelector;
+import Adventure_generator.DTOs.Response.AdventureHistoryPage;
+import Adventure_generator.DTOs.Response.AdventureSummary;
 import Adventure_generator.Entity.Adventure;
 import Adventure_generator.Entity.User;
-import Adventure_generator.POJO.AdventureIdea;
 import Adventure_generator.Repository.AdventureRepository;
+import Adventure_generator.Util.HistoryCursor;
+import Adventure_generator.Util.LogRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 
 /**
  * Service layer for adventure generation and management.
  * 
  * Handles business logic for:
- * - Loading adventure ideas from JSON resource file on startup
- * - Filtering adventures by user preferences (mood, weather, distance)
- * - Random selection from filtered adventure pool
+ * - Picking from the live catalog index (mood, weather, distance) kept by AdventureCatalogService
+ * - Selecting one adventure from the matching bucket via a pluggable AdventureSelector
  * - Persisting generated adventures to database with user associations
- * - Retrieving user's adventure history
+ *   (directly, or batched through AdventureWriteBehind when enabled)
+ * - Retrieving user's adventure history, keyset-paged (see HistoryCursor)
  * 
  * Adventure Filtering Logic:
  * - Mood: happy, relaxed, energetic, romantic, neutral
  * - Weather: clear, rain, snow, any
  * - Distance: local or long-distance
  * 
- * Data Source: adventures.json loaded at application startup via @PostConstruct
+ * Data Source: the CatalogSource configured by adventure.catalog.source (adventures.json on the
+ * classpath by default), loaded and hot-reloaded by AdventureCatalogService into an immutable
+ * AdventureCatalog, see AdventureCatalog for bucket layout.
+ * 
+ * Metrics:
+ * - adventures.catalog.bucket.size - size of the bucket each catalog generate picked from
+ * - adventures.catalog.misses - generates with no matching idea ("No adventure found")
+ * (catalog size, version and reload meters are registered by AdventureCatalogService)
  */
 @Service
 public class AdventureService {
 
-    private List<AdventureIdea> adventureIdeas;
     private static final Logger logger = LoggerFactory.getLogger(AdventureService.class);
 
+    private static final int GENERATE_DEBUG_PER_SECOND = 20;
+    private static final LogRateLimiter generateDebug = new LogRateLimiter(GENERATE_DEBUG_PER_SECOND);
+    private static final LogRateLimiter missLog = new LogRateLimiter(5);
+
     @Autowired
     private AdventureRepository adventureRepository;
 
+    @Autowired
+    private AdventureWriteBehind writeBehind;
+
+    @Autowired
+    private AdventureCatalogService catalogService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private DistributionSummary bucketSizes;
+    private Counter catalogMisses;
+
+    /** Upper bound for history page size, whatever the client asks for. */
+    @Value("${adventure.history.max-page-size:100}")
+    private int historyMaxPageSize = 100;
+
+    /** Bucket pick strategy, see AdventureSelectionConfig. Defaults to ThreadLocalRandom. */
+    @Autowired(required = false)
+    private AdventureSelector adventureSelector = new RandomAdventureSelector();
+
     /**
-     * Loads adventure ideas from JSON file on application startup.
-     * 
-     * Uses Jackson ObjectMapper to deserialize adventures.json from classpath resources.
-     * If loading fails, initializes with empty list and logs error.
-     * 
-     * @PostConstruct ensures this runs once after dependency injection
+     * Registers the generate-path catalog meters once the registry is injected.
      */
     @PostConstruct
-    public void loadAdventures(){
-        ObjectMapper mapper = new ObjectMapper(); // Use to convert between Java objects and JSON
-
-        try(InputStream is = getClass().getResourceAsStream("/adventures.json")){ // Open and read inputStream 
-            adventureIdeas = Arrays.asList(mapper.readValue(is, AdventureIdea[].class)); // Convert into an arraylist
-            logger.info("Successfully loaded {} adventures from adventures.json", adventureIdeas.size());
-        }catch (IOException e){
-            e.printStackTrace();
-            logger.error("Failed to load adventures.json: {}", e.getMessage());
-            adventureIdeas = new ArrayList<>(); // Empty array list
-        }
+    void initMetrics() {
+        bucketSizes = DistributionSummary.builder("adventures.catalog.bucket.size").register(meterRegistry);
+        catalogMisses = Counter.builder("adventures.catalog.misses").register(meterRegistry);
     }
 
     /**
      * Generates a random adventure based on user preferences.
      * 
-     * Filters adventures by mood, weather, and distance preference, then randomly
-     * selects one from the filtered pool. Falls back to default message if no matches.
+     * Same as {@link #generateAdventure(String, String, boolean, Long)} without a user,
+     * so deterministic selection modes fall back to a random pick.
      * 
      * @param mood User's current mood (e.g., 'energetic', 'relaxed')
      * @param weather Current weather condition (e.g., 'clear', 'rain')
@@ -79,38 +101,55 @@ public class AdventureService {
      * @return Adventure suggestion text
      */
     public String generateAdventure(String mood, String weather, boolean longDistance){
-        logger.debug("generateAdventure called with mood={}, weather={}, longDistance={}", mood, weather, longDistance);
-        logger.debug("Total adventures loaded: {}", adventureIdeas.size());
-        
-        List<AdventureIdea> filteredList = adventureIdeas.stream()
-            .filter(a -> a.getMood().equalsIgnoreCase(mood) && (a.getWeather().equalsIgnoreCase(weather) || a.getWeather().equalsIgnoreCase("any")))
-            .filter(a -> {
-                String distance = a.getDistance();
-                if(longDistance){
-                    return "long-distance".equalsIgnoreCase(distance);
-                }else{
-                    return distance == null;
-                }
-            })
-            .toList();
-
-        logger.debug("Filtered adventures count: {}", filteredList.size());
+        return generateAdventure(mood, weather, longDistance, null);
+    }
+
+    /**
+     * Generates an adventure based on user preferences.
+     * 
+     * Looks up the pre-built bucket for mood, weather, and distance preference, then lets
+     * the configured AdventureSelector pick one from it. Falls back to default message if no matches.
+     * 
+     * @param mood User's current mood (e.g., 'energetic', 'relaxed')
+     * @param weather Current weather condition (e.g., 'clear', 'rain')
+     * @param longDistance Whether long-distance travel is preferred
+     * @param userId Requesting user's ID, used to seed deterministic selection (nullable)
+     * @return Adventure suggestion text
+     */
+    public String generateAdventure(String mood, String weather, boolean longDistance, Long userId){
+        // One snapshot read per call, a concurrent reload can't change the catalog under us
+        AdventureCatalog catalog = catalogService.current().catalog();
+        // Shared immutable bucket, "any" weather ideas are already merged in
+        List<String> bucket = catalog.lookup(mood, weather, longDistance);
+        bucketSizes.record(bucket.size());
         
-        if(filteredList.isEmpty()){
-            logger.warn("No adventure found for mood={}, weather={}, longDistance={}", mood, weather, longDistance);
+        if(bucket.isEmpty()){
+            catalogMisses.increment();
+            // Mood and weather come straight from the request, so misses are client-triggerable
+            if (logger.isWarnEnabled() && missLog.tryAcquire()) {
+                logger.warn("No adventure found for mood={}, weather={}, longDistance={} suppressed={}",
+                    mood, weather, longDistance, missLog.drainSuppressed());
+            }
             return "No adventure found for this mood, weather, and preference!";
         }
 
-        // Generate random adventure and return
-        int index = (int)(Math.random() * filteredList.size());
-        String selectedAdventure = filteredList.get(index).getAdventure();
-        logger.debug("Selected adventure: {}", selectedAdventure);
+        int index = adventureSelector.select(bucket.size(), userId, mood, weather, longDistance);
+        String selectedAdventure = bucket.get(index);
+        // One guarded, sampled line instead of four unconditional ones: with debug off nothing is
+        // formatted or boxed, with debug on a busy instance still logs at most GENERATE_DEBUG_PER_SECOND
+        if (logger.isDebugEnabled() && generateDebug.tryAcquire()) {
+            logger.debug("generateAdventure mood={} weather={} longDistance={} catalog={} matches={} selected={}",
+                mood, weather, longDistance, catalog.size(), bucket.size(), selectedAdventure);
+        }
         return selectedAdventure;
     }
     
     /**
      * Save a generated adventure to the database.
      * 
+     * In write-behind mode the returned adventure already has its final id, but the row
+     * is inserted asynchronously and may not show up in history for a flush interval.
+     * 
      * @param adventureText the adventure description
      * @param user the user who generated this adventure
      * @param mood the mood used for generation
@@ -120,6 +159,9 @@ public class AdventureService {
      */
     public Adventure saveAdventure(String adventureText, User user, String mood, String weather, Boolean isLongDistance){
         Adventure adventure = new Adventure(adventureText, user, mood, weather, isLongDistance);
+        if (writeBehind.isEnabled()) {
+            return writeBehind.enqueue(adventure); // id assigned now, row inserted by the batch writer
+        }
         return adventureRepository.save(adventure);
     }
 
@@ -132,4 +174,37 @@ public class AdventureService {
     public List<Adventure> getUserAdventures(Long userId) {
         return adventureRepository.findByUserIdOrderByCreatedAtDesc(userId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Get one page of a user's adventures, newest first.
+     * 
+     * Keyset paging: each page seeks past the (createdAt, id) of the previous page's
+     * last row, so page N costs the same as page 1. Rows are read as AdventureSummary
+     * projections, never as entities.
+     * 
+     * @param userId the user's ID
+     * @param cursor nextCursor from the previous page, null for the first page
+     * @param limit requested page size, clamped to 1..adventure.history.max-page-size
+     * @return the page and the cursor for the next one (null when there is none)
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public AdventureHistoryPage getUserAdventureHistory(Long userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, historyMaxPageSize));
+        Limit fetch = Limit.of(pageSize + 1); // one extra row tells whether there is a next page
+
+        List<AdventureSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = adventureRepository.findHistoryFirstPage(userId, fetch);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            rows = adventureRepository.findHistoryPageBefore(userId, after.createdAt(), after.id(), fetch);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new AdventureHistoryPage(rows, null);
+        }
+        List<AdventureSummary> page = rows.subList(0, pageSize);
+        AdventureSummary last = page.get(pageSize - 1);
+        return new AdventureHistoryPage(List.copyOf(page), new HistoryCursor(last.createdAt(), last.id()).encode());
+    }
+}
@@ -0,0 +1,279 @@
+package Adventure_generator.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import Adventure_generator.Entity.Adventure;
+import Adventure_generator.Entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Optional write-behind path for generated adventures (adventure.write-behind.enabled).
+ *
+ * With IDENTITY keys every save is an immediate single-row INSERT on the request thread.
+ * In write-behind mode the request only takes an id and enqueues the row; a background
+ * writer inserts queued rows in JDBC batches.
+ *
+ * Behaviour:
+ * - Ids are reserved up front in blocks of ID_BLOCK_SIZE from adventure_seq, the same pooled
+ *   sequence Hibernate uses for Adventure, so the response carries the final id immediately
+ * - Bounded queue (queue-capacity); when it is full the row is inserted on the caller thread
+ * - Writer flushes when batch-size rows are waiting or flush-interval-ms has passed
+ * - A failed batch is retried row by row so one bad row doesn't drop its neighbours
+ * - Shutdown stops accepting work and drains the queue (up to shutdown-timeout-ms); the
+ *   writer is never interrupted, it notices within one flush interval, because an interrupt
+ *   landing mid-flush would make every following connection acquisition fail
+ *
+ * Trade-off: a row is visible to reads (history) only after its batch is flushed, and rows
+ * still queued are lost if the process dies without a clean shutdown.
+ *
+ * Metrics:
+ * - adventures.writebehind.queue - rows waiting
+ * - adventures.writebehind.written / .failed / .overflow - rows inserted, rows dropped after
+ *   retry, rows inserted on the caller thread because the queue was full
+ * - adventures.writebehind.flush - batch flush latency
+ */
+@Service
+public class AdventureWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdventureWriteBehind.class);
+
+    /** Must equal allocationSize of adventure_seq on Adventure. */
+    public static final int ID_BLOCK_SIZE = 50;
+
+    private static final String NEXT_ID_BLOCK_SQL = "SELECT nextval('adventure_seq')";
+    private static final String INSERT_SQL = "INSERT INTO adventure"
+        + " (id, adventure, user_id, mood, weather, is_long_distance, created_at, updated_at)"
+        + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${adventure.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${adventure.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${adventure.write-behind.batch-size:100}")
+    private int batchSize;
+
+    @Value("${adventure.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${adventure.write-behind.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<Adventure> queue;
+    private TransactionTemplate transactionTemplate;
+    private Thread writer;
+    private volatile boolean accepting;
+
+    // Current reserved id block (nextId..blockEnd inclusive), guarded by idLock.
+    // A lock rather than synchronized: refills query the database, and a virtual thread
+    // blocking inside synchronized would pin its carrier (see ThreadingConfig).
+    private final ReentrantLock idLock = new ReentrantLock();
+    private long nextId = 1;
+    private long blockEnd = 0;
+
+    private Counter written;
+    private Counter failed;
+    private Counter overflow;
+    private Timer flushTimer;
+
+    /**
+     * Starts the writer thread when write-behind is enabled.
+     */
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("adventures.writebehind.queue", queue, BlockingQueue::size).register(meterRegistry);
+        written = Counter.builder("adventures.writebehind.written").register(meterRegistry);
+        failed = Counter.builder("adventures.writebehind.failed").register(meterRegistry);
+        overflow = Counter.builder("adventures.writebehind.overflow").register(meterRegistry);
+        flushTimer = Timer.builder("adventures.writebehind.flush").register(meterRegistry);
+
+        accepting = true;
+        writer = new Thread(this::runWriter, "adventure-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Adventure write-behind enabled (batch {}, flush every {} ms, queue {})",
+            batchSize, flushIntervalMs, queueCapacity);
+    }
+
+    /**
+     * Stops accepting rows and waits for the writer to drain the queue.
+     */
+    @PreDestroy
+    void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        accepting = false;
+        try {
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.error("Write-behind shutdown timed out with {} adventures unsaved", queue.size());
+            return;
+        }
+        // Rows offered while the writer was exiting
+        List<Adventure> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        rest.forEach(this::insertOne);
+    }
+
+    /**
+     * @return true if saves should go through enqueue instead of the repository
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Assigns a pre-allocated id and timestamps, then queues the adventure for a batched insert.
+     * Falls back to an immediate insert on the caller thread if the queue is full or closed.
+     *
+     * @param adventure New, unsaved adventure with its user set
+     * @return The same adventure, with id, createdAt and updatedAt filled in
+     */
+    public Adventure enqueue(Adventure adventure) {
+        LocalDateTime now = LocalDateTime.now();
+        adventure.setId(nextId());
+        adventure.setCreatedAt(now);
+        adventure.setUpdatedAt(now);
+
+        if (!accepting || !queue.offer(adventure)) {
+            overflow.increment();
+            insertOne(adventure);
+        }
+        return adventure;
+    }
+
+    // Private Helpers
+    private long nextId() {
+        idLock.lock();
+        try {
+            if (nextId > blockEnd) {
+                // Pooled sequence semantics: the returned value is the upper end of a block of ID_BLOCK_SIZE
+                Long hi = jdbcTemplate.queryForObject(NEXT_ID_BLOCK_SQL, Long.class);
+                blockEnd = hi;
+                nextId = Math.max(1, hi - ID_BLOCK_SIZE + 1);
+            }
+            return nextId++;
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    private void runWriter() {
+        List<Adventure> batch = new ArrayList<>(batchSize);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                Adventure first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Adventure next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Not used for shutdown (see shutdown()); flush what we have and keep going
+                logger.warn("Adventure writer interrupted, ignoring");
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Adventure> batch) {
+        flushTimer.record(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), AdventureWriteBehind::bind));
+                written.increment(batch.size());
+            } catch (RuntimeException e) {
+                logger.warn("Batch insert of {} adventures failed, retrying row by row", batch.size(), e);
+                batch.forEach(this::insertOne);
+            }
+        });
+    }
+
+    private void insertOne(Adventure adventure) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, adventure));
+            written.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            logger.error("Failed to save adventure {} for user {}", adventure.getId(), userId(adventure), e);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Adventure adventure) throws SQLException {
+        ps.setLong(1, adventure.getId());
+        ps.setString(2, adventure.getAdventure());
+        ps.setLong(3, userId(adventure));
+        ps.setString(4, adventure.getMood());
+        ps.setString(5, adventure.getWeather());
+        ps.setBoolean(6, Boolean.TRUE.equals(adventure.getIsLongDistance()));
+        ps.setTimestamp(7, Timestamp.valueOf(adventure.getCreatedAt()));
+        ps.setTimestamp(8, Timestamp.valueOf(adventure.getUpdatedAt()));
+    }
+
+    /**
+     * The user's id without initializing it: callers pass getReferenceById proxies whose
+     * session is already closed, and getId() on such a proxy would try to load the User.
+     */
+    private static long userId(Adventure adventure) {
+        User user = adventure.getUser();
+        if (user instanceof HibernateProxy proxy) {
+            return (Long) proxy.getHibernateLazyInitializer().getIdentifier();
+        }
+        return user.getId();
+    }
+}
@@ -1,11 +1,10 @@
 package Adventure_generator.Service;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import Adventure_generator.Entity.User;
@@ -21,18 +20,29 @@ import Adventure_generator.Repository.UserRepository;
  * - Password matching for authentication
  * 
  * Security Features:
- * - BCryptPasswordEncoder for one-way password hashing
+ * - BCrypt one-way password hashing on a bounded executor (PasswordHasher), not on request threads
+ * - Transparent rehash on login when auth.bcrypt.strength changes, in the background
  * - Email case-insensitive comparison (stored as lowercase)
  * - Duplicate email prevention
+ * - Login reads the user (and hash) with one indexed query, the hash is never cached;
+ *   UserLookupCache is invalidated on registration
  * - Secure password verification without exposing hashes
+ * 
+ * Throws ServiceBusyException (503) when the hashing executor is saturated.
  */
 @Service
 public class AuthenticationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthenticationService.class);
     
     @Autowired
     private UserRepository userRepository;
 
-    private PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private UserLookupCache userLookupCache;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
 
     /**
      * Checks if a user with the given email is already registered.
@@ -59,28 +69,55 @@ public class AuthenticationService {
 
         User newUser = new User();
         newUser.setEmail(email.toLowerCase());
-        newUser.setPassword(passwordEncoder.encode(password));
+        newUser.setPassword(passwordHasher.encode(password));
         newUser.setUserName(userName);
         newUser.setCreatedAt(LocalDateTime.now());
 
-        return userRepository.save(newUser);
+        User saved = userRepository.save(newUser);
+        userLookupCache.invalidate(saved.getUserName(), saved.getEmail());
+        return saved;
     }
     /**
      * Authenticates a user by email and password.
      * 
+     * The user row is read by email (unique index) rather than through UserLookupCache, so
+     * the password hash is never held in memory past the request and a changed password
+     * takes effect at once. The returned User is detached (not managed by JPA). Hashes made
+     * with a lower cost than auth.bcrypt.strength are upgraded while the plain password is at hand.
+     * 
      * @param email User's email (case-insensitive)
      * @param password Plain text password to verify
      * @return User entity if credentials are valid, null otherwise
      */
     public User findUserByEmail(String email, String password){
-        Optional<User> userOptional = userRepository.findByEmail(email.toLowerCase());
+        User user = userRepository.findByEmail(email.toLowerCase()).orElse(null);
         
-        if(userOptional.isPresent()){
-            User user = userOptional.get();
-            if(passwordEncoder.matches(password, user.getPassword())){
-                return user;
+        if(user != null && passwordHasher.matches(password, user.getPassword())){
+            if(passwordHasher.needsRehash(user.getPassword())){
+                rehash(user, password);
             }
+            return user;
         }
         return null;
     }
+
+    /**
+     * Re-hashes a password at the configured strength without delaying the login.
+     * Best effort: skipped while the hasher is busy, and a failure only delays the
+     * upgrade to the next login. The update only applies if the hash is unchanged.
+     */
+    private void rehash(User user, String password){
+        Long userId = user.getId();
+        String oldHash = user.getPassword();
+        boolean accepted = passwordHasher.encodeInBackground(password, newHash -> {
+            try {
+                userRepository.updatePasswordIfUnchanged(userId, oldHash, newHash);
+            } catch (RuntimeException e) {
+                logger.warn("Password rehash failed for user {}: {}", userId, e.getMessage());
+            }
+        });
+        if (!accepted) {
+            logger.debug("Password rehash for user {} skipped, hasher busy", userId);
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package Adventure_generator.Service;
+
+/**
+ * Extension point for propagating favourite cache invalidations across nodes.
+ *
+ * FavouriteService always evicts the user's cached favourite ids locally first, then
+ * notifies every hook bean. Single-node deployments need no implementation; other nodes
+ * otherwise catch up when their entry expires (favourites.cache.ttl-minutes after it was
+ * loaded). For multi-node deployments, implement this to publish the change and have the
+ * receiving side call FavouriteService.evictLocal, as with UserCacheInvalidationHook.
+ *
+ * Implementations must not block for long, they run on the request thread
+ * that changed the favourites.
+ */
+public interface FavouriteCacheInvalidationHook {
+
+    /**
+     * Called after a user's favourite ids were evicted locally.
+     *
+     * @param userId ID of the user whose favourites changed
+     */
+    void favouritesChanged(Long userId);
+}
@@ -1,8 +1,196 @@
 package Adventure_generator.Service;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import Adventure_generator.DTOs.Response.AdventureSummary;
+import Adventure_generator.Entity.UserFavourite;
+import Adventure_generator.Exception.NotFoundException;
+import Adventure_generator.Repository.AdventureRepository;
+import Adventure_generator.Repository.UserFavoriteRepository;
+import Adventure_generator.Repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Service for users' favourite adventures, persisted in user_favourites.
+ *
+ * Handles:
+ * - Adding and removing favourites (only on adventures the user owns)
+ * - Listing favourites as AdventureSummary, optionally filtered by mood
+ * - Membership checks (isFavourite) answered from a per-user set of favourite adventure ids
+ * - Bulk status for N adventure ids: from the cached set, or one IN query when not cached
+ *
+ * Cache:
+ * - userId -> immutable Set of favourite adventure ids, loaded with one id-only query
+ * - Evicted after each add/remove commits (the next read reloads it), then
+ *   FavouriteCacheInvalidationHook beans are notified so other nodes can evict too
+ * - Size bounded, and expires ttl-minutes after loading so a missed invalidation is not
+ *   served forever (favourites.cache.max-size, favourites.cache.ttl-minutes)
+ * - Metrics: cache.* tagged cache=favourites
+ */
 @Service
 public class FavouriteService {
-    
+
+    private static final Logger logger = LoggerFactory.getLogger(FavouriteService.class);
+
+    @Autowired
+    private UserFavoriteRepository favouriteRepository;
+
+    @Autowired
+    private AdventureRepository adventureRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private List<FavouriteCacheInvalidationHook> invalidationHooks = List.of();
+
+    @Value("${favourites.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${favourites.cache.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    /** Largest id list accepted by favouritedAmong, matches the history page cap. */
+    @Value("${adventure.history.max-page-size:100}")
+    private int maxStatusIds;
+
+    private Cache<Long, Set<Long>> favouriteIds;
+
+    /**
+     * Builds the favourite-id cache once @Value properties are injected.
+     */
+    @PostConstruct
+    void initCache() {
+        favouriteIds = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, favouriteIds, "favourites");
+    }
+
+    /**
+     * Mark an adventure as a favourite. Idempotent.
+     *
+     * @param userId the user's ID
+     * @param adventureId the adventure's ID
+     * @throws NotFoundException if the adventure doesn't exist or belongs to another user
+     */
+    public void addFavourite(Long userId, Long adventureId) {
+        if (isFavourite(userId, adventureId)) {
+            return;
+        }
+        if (!adventureRepository.existsByIdAndUserId(adventureId, userId)) {
+            throw new NotFoundException("Adventure " + adventureId + " not found");
+        }
+        try {
+            favouriteRepository.save(new UserFavourite(
+                userRepository.getReferenceById(userId), adventureRepository.getReferenceById(adventureId)));
+        } catch (DataIntegrityViolationException e) {
+            // Concurrent add of the same favourite, unique (user_id, adventure_id) kept one row
+            logger.debug("Favourite {} for user {} already exists", adventureId, userId);
+        }
+        invalidate(userId);
+    }
+
+    /**
+     * Remove an adventure from the user's favourites.
+     *
+     * @param userId the user's ID
+     * @param adventureId the adventure's ID
+     * @throws NotFoundException if the adventure isn't one of the user's favourites
+     */
+    public void removeFavourite(Long userId, Long adventureId) {
+        if (favouriteRepository.deleteByUserIdAndAdventureId(userId, adventureId) == 0) {
+            throw new NotFoundException("Adventure " + adventureId + " is not a favourite");
+        }
+        invalidate(userId);
+    }
+
+    /**
+     * @param userId the user's ID
+     * @param mood only favourites generated for this mood, or null for all
+     * @return the user's favourite adventures, most recently favourited first
+     */
+    public List<AdventureSummary> listFavourites(Long userId, String mood) {
+        return favouriteRepository.findFavouriteSummaries(userId, mood);
+    }
+
+    /**
+     * O(1) after the user's favourite ids are cached (first call loads them with one query).
+     *
+     * @param userId the user's ID
+     * @param adventureId the adventure's ID
+     * @return true if the adventure is one of the user's favourites
+     */
+    public boolean isFavourite(Long userId, Long adventureId) {
+        return favouriteIds.get(userId, this::loadFavouriteIds).contains(adventureId);
+    }
+
+    /**
+     * Favourite status for a batch of adventures, e.g. one history page.
+     *
+     * @param userId the user's ID
+     * @param adventureIds adventure ids to check, at most adventure.history.max-page-size
+     * @return the subset of adventureIds that are favourites
+     * @throws IllegalArgumentException if too many ids are passed
+     */
+    public Set<Long> favouritedAmong(Long userId, Collection<Long> adventureIds) {
+        if (adventureIds.size() > maxStatusIds) {
+            throw new IllegalArgumentException("At most " + maxStatusIds + " adventure ids per request");
+        }
+        if (adventureIds.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> cached = favouriteIds.getIfPresent(userId);
+        if (cached != null) {
+            return adventureIds.stream().filter(cached::contains).collect(Collectors.toUnmodifiableSet());
+        }
+        return favouriteRepository.findFavouritedAdventureIds(userId, adventureIds);
+    }
+
+    /**
+     * Evicts a user's favourite ids from this node only, for hooks receiving
+     * invalidations from other nodes.
+     *
+     * @param userId the user's ID
+     */
+    public void evictLocal(Long userId) {
+        favouriteIds.invalidate(userId);
+    }
+
+    // Private Helpers
+    private Set<Long> loadFavouriteIds(Long userId) {
+        return Set.copyOf(favouriteRepository.findAdventureIdsByUserId(userId));
+    }
+
+    private void invalidate(Long userId) {
+        evictLocal(userId);
+        for (FavouriteCacheInvalidationHook hook : invalidationHooks) {
+            try {
+                hook.favouritesChanged(userId);
+            } catch (RuntimeException e) {
+                logger.warn("Favourite cache invalidation hook {} failed: {}", hook.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
 }
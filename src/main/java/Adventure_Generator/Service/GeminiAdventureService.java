@@ -1,25 +1,88 @@
 package Adventure_generator.Service;
 
 import com.google.gson.*;
+
+import Adventure_generator.Util.LogRateLimiter;
+import Adventure_generator.Util.SingleFlight;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service for generating AI-powered adventure narrations using Google Gemini Pro.
- * Uses Spring WebClient (already in pom via webflux) to call the Gemini REST API.
+ * Uses the pooled geminiWebClient (see WebClientConfig) to call the Gemini REST API.
+ *
+ * Every operation has a non-blocking variant (*Async) returning Mono<String>, so
+ * controllers can release the servlet thread during the LLM round trip.
+ * The blocking methods are thin wrappers that block on the async variant.
+ *
+ * Single adventure narrations are served from a NarrationCache pool (gemini.cache.*)
+ * so most AI requests don't pay a Gemini round trip at all. Concurrent identical
+ * prompts (e.g. many users predicting mood for the same weather) share one call.
+ *
+ * Every upstream call has a hard deadline (gemini.timeout-ms) and goes through the
+ * "gemini" circuit breaker (see GeminiResilienceConfig). While the circuit is open,
+ * calls fail immediately with CallNotPermittedException so callers can fall back
+ * to the static catalog without waiting on a dead endpoint.
+ *
+ * Metrics (tagged operation=generateAdventure|generateMultiple|predictMood|chat|analyzeReview):
+ * - gemini.call: upstream call latency with percentile histogram, tagged outcome
+ *   (success, error, timeout, rejected, cancelled); narration cache hits don't call Gemini
+ * - gemini.tokens: prompt/output token counts from the response usageMetadata
  */
 @Service
 public class GeminiAdventureService {
 
     private static final Logger logger = LoggerFactory.getLogger(GeminiAdventureService.class);
 
+    // During an outage every request fails the same way, one stack trace per second is plenty
+    private static final LogRateLimiter failureLog = new LogRateLimiter(1);
+
+    /** Operation tag values for gemini.call / gemini.tokens. */
+    private enum Operation {
+        GENERATE("generateAdventure"),
+        GENERATE_MULTIPLE("generateMultiple"),
+        PREDICT_MOOD("predictMood"),
+        CHAT("chat"),
+        ANALYZE_REVIEW("analyzeReview");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /** Outcome tag values for gemini.call. */
+    private enum Outcome {
+        SUCCESS, ERROR, TIMEOUT, REJECTED, CANCELLED;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    /** Meters of one operation, registered once so the call path only records. */
+    private record OperationMeters(EnumMap<Outcome, Timer> calls, DistributionSummary promptTokens,
+                                   DistributionSummary outputTokens) {}
+
     @Value("${gemini.api.key}")
     private String apiKey;
 
@@ -38,12 +101,76 @@ public class GeminiAdventureService {
     @Value("${gemini.top.k:40}")
     private int topK;
 
+    /** Hard deadline for a single Gemini round trip, slower calls fail (and count against the circuit). */
+    @Value("${gemini.timeout-ms:10000}")
+    private long callTimeoutMs;
+
+    /** Serve adventure narrations from a per-(mood, weather, distance) pool, see NarrationCache. */
+    @Value("${gemini.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${gemini.cache.pool-size:8}")
+    private int cachePoolSize;
+
+    @Value("${gemini.cache.refill-watermark:3}")
+    private int cacheRefillWatermark;
+
+    @Value("${gemini.cache.ttl-minutes:30}")
+    private long cacheTtlMinutes;
+
+    @Value("${gemini.cache.max-keys:64}")
+    private int cacheMaxKeys;
+
+    /** How generateMultipleAdventures asks for N ideas: fanout (N parallel calls) or batch (one JSON prompt). */
+    @Value("${gemini.multi.mode:fanout}")
+    private String multiMode;
+
+    /** Max in-flight Gemini calls per generateMultipleAdventures request in fanout mode. */
+    @Value("${gemini.multi.concurrency:4}")
+    private int multiConcurrency;
+
+    /** Per-call deadline for generateMultipleAdventures, slower calls are dropped from the result. */
+    @Value("${gemini.multi.timeout-ms:15000}")
+    private long multiTimeoutMs;
+
     private final WebClient webClient;
     private final Gson gson;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+
+    /** Coalesces concurrent identical prompts into one upstream call, keyed by the full prompt. */
+    private final SingleFlight<String, String> singleFlight;
+
+    private final EnumMap<Operation, OperationMeters> meters = new EnumMap<>(Operation.class);
+
+    /** Null when gemini.cache.enabled=false. */
+    private NarrationCache narrationCache;
 
-    public GeminiAdventureService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.build();
+    public GeminiAdventureService(@Qualifier("geminiWebClient") WebClient webClient, MeterRegistry meterRegistry,
+                                  CircuitBreaker geminiCircuitBreaker) {
+        this.webClient = webClient;
         this.gson = new Gson();
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = geminiCircuitBreaker;
+        this.singleFlight = new SingleFlight<>("gemini", meterRegistry);
+        for (Operation operation : Operation.values()) {
+            meters.put(operation, registerMeters(operation));
+        }
+    }
+
+    /**
+     * Builds the narration cache once @Value properties are injected.
+     */
+    @PostConstruct
+    void initNarrationCache() {
+        if (!cacheEnabled) {
+            logger.info("Gemini narration cache disabled");
+            return;
+        }
+        narrationCache = new NarrationCache(
+                key -> requestGemini(Operation.GENERATE, buildAdventurePrompt(key.mood(), key.weather(), key.longDistance())),
+                cachePoolSize, cacheRefillWatermark, Duration.ofMinutes(cacheTtlMinutes),
+                cacheMaxKeys, meterRegistry);
     }
 
     // Dynamic Adventure Narration 
@@ -57,9 +184,26 @@ public class GeminiAdventureService {
      * @return Plain text adventure narration
      */
     public String generateAdventure(String mood, String weather, boolean longDistance) {
-        logger.debug("Generating adventure: mood={}, weather={}, longDistance={}", mood, weather, longDistance);
+        return generateAdventureAsync(mood, weather, longDistance).block();
+    }
+
+    /**
+     * Non-blocking variant of {@link #generateAdventure(String, String, boolean)}.
+     *
+     * Served from the narration cache when enabled; a cache hit completes immediately
+     * and the pool is refilled in the background.
+     *
+     * @return Mono emitting the plain text adventure narration
+     */
+    public Mono<String> generateAdventureAsync(String mood, String weather, boolean longDistance) {
+        if (logger.isDebugEnabled()) { // 3+ args would allocate the varargs array even with debug off
+            logger.debug("Generating adventure: mood={}, weather={}, longDistance={}", mood, weather, longDistance);
+        }
+        if (narrationCache != null && mood != null && weather != null) {
+            return narrationCache.get(mood, weather, longDistance);
+        }
         String prompt = buildAdventurePrompt(mood, weather, longDistance);
-        return callGemini(prompt);
+        return callGeminiAsync(Operation.GENERATE, prompt);
     }
 
     // Mood Prediction 
@@ -68,6 +212,15 @@ public class GeminiAdventureService {
      * Returns one of: happy, relaxed, energetic, romantic
      */
     public String predictMood(String weather, String timeOfDay, String season) {
+        return predictMoodAsync(weather, timeOfDay, season).block();
+    }
+
+    /**
+     * Non-blocking variant of {@link #predictMood(String, String, String)}.
+     *
+     * @return Mono emitting the mood prediction JSON
+     */
+    public Mono<String> predictMoodAsync(String weather, String timeOfDay, String season) {
         String prompt = String.format("""
                 Based on this context, predict the most likely mood for someone planning an adventure/ date 
                 
@@ -80,8 +233,7 @@ public class GeminiAdventureService {
                 Respond ONLY with a JSON object: {"mood": "...", "confidence": 0.0, "reason": "..."}
                 """, weather, timeOfDay, season);
 
-        String raw = callGemini(prompt);
-        return cleanJson(raw);
+        return callGeminiAsync(Operation.PREDICT_MOOD, prompt).map(this::cleanJson);
     }
 
     // Adventure Chat 
@@ -89,6 +241,15 @@ public class GeminiAdventureService {
      * Chat-style interaction for adventure planning help.
      */
     public String chat(String userMessage) {
+        return chatAsync(userMessage).block();
+    }
+
+    /**
+     * Non-blocking variant of {@link #chat(String)}.
+     *
+     * @return Mono emitting the chat reply
+     */
+    public Mono<String> chatAsync(String userMessage) {
         String prompt = String.format("""
                 Help users discover fun activities based on their mood, weather, and preferences.
                 Keep responses concise, warm, and actionable. Suggest 1-2 specific ideas max.
@@ -96,7 +257,7 @@ public class GeminiAdventureService {
                 User: %s
                 """, userMessage);
 
-        return callGemini(prompt);
+        return callGeminiAsync(Operation.CHAT, prompt);
     }
 
     // Review Sentiment Analysis
@@ -104,6 +265,15 @@ public class GeminiAdventureService {
      * Analyzes sentiment of a user-submitted adventure review and based it off for next adventures. 
      */
     public String analyzeReview(String reviewText, String adventureName) {
+        return analyzeReviewAsync(reviewText, adventureName).block();
+    }
+
+    /**
+     * Non-blocking variant of {@link #analyzeReview(String, String)}.
+     *
+     * @return Mono emitting the sentiment JSON
+     */
+    public Mono<String> analyzeReviewAsync(String reviewText, String adventureName) {
         String prompt = String.format("""
                 Analyze this adventure review and return sentiment data.
                 
@@ -119,20 +289,77 @@ public class GeminiAdventureService {
                 }
                 """, adventureName, reviewText);
 
-        return cleanJson(callGemini(prompt));
+        return callGeminiAsync(Operation.ANALYZE_REVIEW, prompt).map(this::cleanJson);
     }
 
     // Generate Multiple Adventures 
+    /**
+     * Generates several adventure narrations for the same preferences.
+     *
+     * @param count Number of ideas requested
+     * @return Generated ideas, may hold fewer than count if some calls failed or timed out
+     */
     public List<String> generateMultipleAdventures(String mood, String weather, boolean longDistance, int count) {
-        List<String> adventures = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            adventures.add(generateAdventure(mood, weather, longDistance));
+        return generateMultipleAdventuresAsync(mood, weather, longDistance, count).block();
+    }
+
+    /**
+     * Non-blocking variant of {@link #generateMultipleAdventures(String, String, boolean, int)}.
+     *
+     * Modes (gemini.multi.mode):
+     * - fanout (default): count calls issued concurrently, at most gemini.multi.concurrency in flight,
+     *   each bounded by gemini.multi.timeout-ms. Failed/slow calls are dropped (partial results),
+     *   so total latency is roughly one round trip instead of count round trips.
+     * - batch: one call asking Gemini for count ideas as a JSON array, split locally.
+     *
+     * Errors only if no idea at all could be generated.
+     *
+     * @return Mono emitting the generated ideas
+     */
+    public Mono<List<String>> generateMultipleAdventuresAsync(String mood, String weather, boolean longDistance, int count) {
+        if (count <= 0) {
+            return Mono.just(List.of());
         }
-        return adventures;
+        Mono<List<String>> adventures = "batch".equalsIgnoreCase(multiMode)
+                ? generateBatch(mood, weather, longDistance, count)
+                : generateFanOut(mood, weather, longDistance, count);
+
+        return adventures.flatMap(list -> list.isEmpty()
+                ? Mono.error(new RuntimeException("Gemini returned no adventures out of " + count + " requested"))
+                : Mono.just(list));
+    }
+
+    private Mono<List<String>> generateFanOut(String mood, String weather, boolean longDistance, int count) {
+        String prompt = buildAdventurePrompt(mood, weather, longDistance);
+        Duration timeout = Duration.ofMillis(multiTimeoutMs);
+
+        return Flux.range(0, count)
+                .flatMap(i -> requestGemini(Operation.GENERATE_MULTIPLE, prompt) // not coalesced, identical prompts must yield distinct ideas
+                        .timeout(timeout)
+                        .onErrorResume(e -> {
+                            logger.warn("Dropping adventure {} of {}: {}", i + 1, count, e.getMessage());
+                            return Mono.empty();
+                        }), Math.max(1, multiConcurrency))
+                .collectList();
+    }
+
+    private Mono<List<String>> generateBatch(String mood, String weather, boolean longDistance, int count) {
+        String prompt = buildMultiAdventurePrompt(mood, weather, longDistance, count);
+
+        return callGeminiAsync(Operation.GENERATE_MULTIPLE, prompt)
+                .timeout(Duration.ofMillis(multiTimeoutMs))
+                .map(text -> parseAdventureList(text, count));
     }
 
     // Private Helpers
     private String buildAdventurePrompt(String mood, String weather, boolean longDistance) {
+        return buildAdventurePrompt(mood, weather, longDistance, """
+                Write ONE adventure idea as a short engaging narrative (2-3 sentences).
+                Make it feel personal and exciting. No bullet points, no JSON, just plain text.
+                """);
+    }
+
+    private String buildAdventurePrompt(String mood, String weather, boolean longDistance, String task) {
         String distanceContext = longDistance
                 ? "This is for a long-distance couples/ friends — suggest virtual or mail-based activities."
                 : "This is for people in the same location or distance.";
@@ -153,16 +380,117 @@ public class GeminiAdventureService {
                 - Weather: %s
                 - Distance: %s
                 
-                Write ONE adventure idea as a short engaging narrative (2-3 sentences).
-                Make it feel personal and exciting. No bullet points, no JSON, just plain text.
-                """, mood, moodGuidance, weather, distanceContext);
+                %s""", mood, moodGuidance, weather, distanceContext, task);
+    }
+
+    private String buildMultiAdventurePrompt(String mood, String weather, boolean longDistance, int count) {
+        return buildAdventurePrompt(mood, weather, longDistance, String.format("""
+                Write %d DIFFERENT adventure ideas, each a short engaging narrative (2-3 sentences).
+                Make them feel personal and exciting. Respond ONLY with JSON: {"adventures": ["idea 1", "idea 2"]}
+                """, count));
+    }
+
+    /**
+     * Splits a batch response {"adventures": [...]} into at most count ideas.
+     */
+    private List<String> parseAdventureList(String json, int count) {
+        try {
+            JsonArray array = gson.fromJson(json, JsonObject.class).getAsJsonArray("adventures");
+            List<String> adventures = new ArrayList<>(Math.min(count, array.size()));
+            for (JsonElement element : array) {
+                if (adventures.size() == count) {
+                    break;
+                }
+                String text = element.getAsString().trim();
+                if (!text.isEmpty()) {
+                    adventures.add(text);
+                }
+            }
+            return adventures;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Unexpected batch adventure response from Gemini: " + e.getMessage(), e);
+        }
     }
 
     /**
      * Calls the Gemini API and returns the generated text.
-     * Uses WebClient (non-blocking) but blocks for simplicity in sync controller flow.
+     *
+     * Identical prompts already in flight are coalesced: concurrent callers share one
+     * upstream request and all receive its result (see SingleFlight).
      */
-    private String callGemini(String prompt) {
+    private Mono<String> callGeminiAsync(Operation operation, String prompt) {
+        return singleFlight.execute(prompt, () -> requestGemini(operation, prompt));
+    }
+
+    /**
+     * Sends one request to the Gemini API, without coalescing.
+     *
+     * Fully non-blocking: the returned Mono completes on a WebClient I/O thread.
+     * The call is cancelled after gemini.timeout-ms and guarded by the circuit breaker.
+     * Rejections from an open circuit are passed through as CallNotPermittedException
+     * without logging a stack trace; other failures are logged (rate limited, with a count of
+     * the ones suppressed) and surfaced as RuntimeException("Failed to call Gemini API: ...").
+     *
+     * The API key goes in the x-goog-api-key header, not the query string: WebClient puts the
+     * request URL in its exception messages, which end up in logs and error responses.
+     *
+     * Every attempt is timed as gemini.call{operation, outcome}, where outcome is
+     * success, error, timeout, rejected (open circuit) or cancelled.
+     */
+    private Mono<String> requestGemini(Operation operation, String prompt) {
+        return Mono.defer(() -> {
+            EnumMap<Outcome, Timer> calls = meters.get(operation).calls();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return webClient.post()
+                    .uri(apiUrl)
+                    .header("Content-Type", "application/json")
+                    .header("x-goog-api-key", apiKey)
+                    .bodyValue(buildRequestBody(prompt)) // json 
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .switchIfEmpty(Mono.error(() -> new IllegalStateException("Empty response body")))
+                    .map(body -> extractText(operation, body))
+                    .timeout(Duration.ofMillis(callTimeoutMs))
+                    .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                    .doOnSuccess(text -> sample.stop(calls.get(Outcome.SUCCESS)))
+                    .doOnError(e -> sample.stop(calls.get(outcome(e))))
+                    .doOnCancel(() -> sample.stop(calls.get(Outcome.CANCELLED)));
+        }).onErrorMap(e -> !(e instanceof CallNotPermittedException), e -> {
+            if (failureLog.tryAcquire()) {
+                logger.error("Gemini API call failed operation={} suppressed={}", operation.tag, failureLog.drainSuppressed(), e);
+            }
+            return new RuntimeException("Failed to call Gemini API: " + e.getMessage(), e);
+        });
+    }
+
+    private OperationMeters registerMeters(Operation operation) {
+        EnumMap<Outcome, Timer> calls = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : Outcome.values()) {
+            calls.put(outcome, Timer.builder("gemini.call")
+                    .tag("operation", operation.tag)
+                    .tag("outcome", outcome.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        return new OperationMeters(calls, tokens(operation, "prompt"), tokens(operation, "output"));
+    }
+
+    private DistributionSummary tokens(Operation operation, String type) {
+        return DistributionSummary.builder("gemini.tokens")
+                .baseUnit("tokens")
+                .tag("operation", operation.tag)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private static Outcome outcome(Throwable e) {
+        if (e instanceof CallNotPermittedException) {
+            return Outcome.REJECTED;
+        }
+        return e instanceof TimeoutException ? Outcome.TIMEOUT : Outcome.ERROR;
+    }
+
+    private String buildRequestBody(String prompt) {
         // Build request JSON from bottom up, textPart -> parts -> content ->
         JsonObject textPart = new JsonObject();
         textPart.addProperty("text", prompt);
@@ -186,30 +514,19 @@ public class GeminiAdventureService {
         requestBody.add("contents", contents);
         requestBody.add("generationConfig", generationConfig);
 
-        String url = apiUrl + "?key=" + apiKey;
-
-        try {
-            String responseBody = webClient.post()
-                    .uri(url)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(gson.toJson(requestBody)) // json 
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block(); // converts async -> sync
-            return extractText(responseBody);
-
-        } catch (Exception e) {
-            logger.error("Gemini API call failed", e);
-            throw new RuntimeException("Failed to call Gemini API: " + e.getMessage(), e);
-        }
+        return gson.toJson(requestBody);
     }
 
     /**
      * Extracts text from Gemini's nested JSON:
      * candidates[0] → content → parts[0] → text
+     *
+     * Token counts from usageMetadata, when present, are recorded as
+     * gemini.tokens{operation, type=prompt|output}.
      */
-    private String extractText(String responseBody) {
+    private String extractText(Operation operation, String responseBody) {
         JsonObject root = gson.fromJson(responseBody, JsonObject.class);
+        recordTokens(operation, root.getAsJsonObject("usageMetadata"));
         String text = root
                 .getAsJsonArray("candidates")
                 .get(0).getAsJsonObject()
@@ -221,6 +538,18 @@ public class GeminiAdventureService {
         return cleanJson(text); // to get plain text
     }
 
+    private void recordTokens(Operation operation, JsonObject usage) {
+        if (usage == null) {
+            return;
+        }
+        if (usage.has("promptTokenCount")) {
+            meters.get(operation).promptTokens().record(usage.get("promptTokenCount").getAsInt());
+        }
+        if (usage.has("candidatesTokenCount")) {
+            meters.get(operation).outputTokens().record(usage.get("candidatesTokenCount").getAsInt());
+        }
+    }
+
     private String cleanJson(String text) {
         return text
                 .replaceAll("```json", "")
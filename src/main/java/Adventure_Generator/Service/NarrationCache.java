@@ -0,0 +1,222 @@
+package Adventure_generator.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import Adventure_generator.Util.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Pool cache of pre-generated Gemini adventure narrations.
+ *
+ * Adventure prompts only vary by (mood, weather, longDistance), which has very low
+ * cardinality, so instead of one Gemini round trip per request we keep a small pool
+ * of narrations per key and serve them round-robin.
+ *
+ * Behaviour:
+ * - Hit: a live narration is returned immediately, pools rotate so users see variety
+ * - Miss: the caller waits for one Gemini call, its result seeds the pool; concurrent
+ *   misses on the same key share that call (SingleFlight) and trigger a single refill
+ * - Refill: when a pool drops below the watermark it is topped up in the background
+ *   (at most one refill per key in flight)
+ * - TTL: narrations expire after the configured TTL so the pool slowly rotates content
+ * - Bounds: at most poolSize narrations per key and maxKeys keys; mood and weather come from
+ *   the client, so pools live in a Caffeine cache that evicts the least used key when full
+ *   and drops a key nobody asked for within the TTL
+ *
+ * Metrics:
+ * - gemini.narration.cache{result=hit|miss}
+ * - gemini.narration.cache.refills{outcome=success|failure}
+ * - gemini.narration.cache.keys
+ * - singleflight.*{name=narration}
+ */
+public class NarrationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(NarrationCache.class);
+
+    /** Normalized cache key, mood and weather are lowercased and trimmed. */
+    public record Key(String mood, String weather, boolean longDistance) {}
+
+    private final Cache<Key, Pool> pools;
+    private final SingleFlight<Key, String> misses;
+    private final Function<Key, Mono<String>> loader;
+    private final int poolSize;
+    private final int refillWatermark;
+    private final long ttlNanos;
+
+    private final Counter hits;
+    private final Counter missCount;
+    private final Counter refills;
+    private final Counter refillFailures;
+
+    /**
+     * @param loader Generates one fresh narration for a key (uncached Gemini call)
+     * @param poolSize Max narrations kept per key
+     * @param refillWatermark Refill starts when a pool has fewer live narrations than this
+     * @param ttl How long a narration may be served
+     * @param maxKeys Max number of (mood, weather, distance) keys kept
+     * @param meterRegistry Registry for hit/miss/refill metrics
+     */
+    public NarrationCache(Function<Key, Mono<String>> loader, int poolSize, int refillWatermark,
+                          Duration ttl, int maxKeys, MeterRegistry meterRegistry) {
+        this.loader = loader;
+        this.poolSize = Math.max(1, poolSize);
+        this.refillWatermark = Math.min(Math.max(1, refillWatermark), this.poolSize);
+        this.ttlNanos = ttl.toNanos();
+        this.pools = Caffeine.newBuilder()
+            .maximumSize(Math.max(1, maxKeys))
+            .expireAfterAccess(ttl)
+            .build();
+        this.misses = new SingleFlight<>("narration", meterRegistry);
+
+        this.hits = Counter.builder("gemini.narration.cache").tag("result", "hit").register(meterRegistry);
+        this.missCount = Counter.builder("gemini.narration.cache").tag("result", "miss").register(meterRegistry);
+        this.refills = Counter.builder("gemini.narration.cache.refills").tag("outcome", "success").register(meterRegistry);
+        this.refillFailures = Counter.builder("gemini.narration.cache.refills").tag("outcome", "failure").register(meterRegistry);
+        Gauge.builder("gemini.narration.cache.keys", pools, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    /**
+     * Returns a narration for the given preferences, from the pool when possible.
+     *
+     * @return Mono emitting a narration, errors only if a miss fails to load
+     */
+    public Mono<String> get(String mood, String weather, boolean longDistance) {
+        return Mono.defer(() -> {
+            Key key = new Key(normalize(mood), normalize(weather), longDistance);
+            Pool pool = pools.get(key, k -> new Pool(poolSize));
+
+            long now = System.nanoTime();
+            String narration = pool.next(now);
+            if (narration != null) {
+                hits.increment();
+                if (pool.liveCount(now) < refillWatermark) {
+                    refill(key, pool);
+                }
+                return Mono.just(narration);
+            }
+
+            missCount.increment();
+            Pool target = pool;
+            return misses.execute(key, () -> loader.apply(key)
+                .doOnNext(text -> target.add(text, System.nanoTime() + ttlNanos))
+                .doOnSuccess(text -> refill(key, target)));
+        });
+    }
+
+    /**
+     * @return Live narrations currently pooled for the given preferences
+     */
+    public int pooled(String mood, String weather, boolean longDistance) {
+        Pool pool = pools.getIfPresent(new Key(normalize(mood), normalize(weather), longDistance));
+        return pool == null ? 0 : pool.liveCount(System.nanoTime());
+    }
+
+    // Private Helpers
+    /** Tops the pool up to poolSize in the background, one refill per key at a time. */
+    private void refill(Key key, Pool pool) {
+        if (!pool.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        int missing = poolSize - pool.liveCount(System.nanoTime());
+        if (missing <= 0) {
+            pool.refilling.set(false);
+            return;
+        }
+        logger.debug("Refilling narration pool {} with {} narrations", key, missing);
+        Flux.range(0, missing)
+            .flatMap(i -> loader.apply(key)
+                .doOnNext(text -> {
+                    pool.add(text, System.nanoTime() + ttlNanos);
+                    refills.increment();
+                })
+                .onErrorResume(e -> {
+                    refillFailures.increment();
+                    logger.warn("Narration refill failed for {}: {}", key, e.getMessage());
+                    return Mono.empty();
+                }), 2)
+            .doFinally(signal -> pool.refilling.set(false))
+            .subscribe();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Fixed-capacity pool of narrations for one key.
+     * Methods are synchronized but never block on I/O, critical sections are a few array ops.
+     */
+    private static final class Pool {
+        private final String[] texts;
+        private final long[] expiresAt;
+        private int size;
+        private int cursor;
+        private final AtomicBoolean refilling = new AtomicBoolean();
+
+        Pool(int capacity) {
+            this.texts = new String[capacity];
+            this.expiresAt = new long[capacity];
+        }
+
+        /** Next live narration in round-robin order, null if none. */
+        synchronized String next(long now) {
+            evictExpired(now);
+            if (size == 0) {
+                return null;
+            }
+            cursor = (cursor + 1) % size;
+            return texts[cursor];
+        }
+
+        /** Adds a narration, replacing the one closest to expiry when full. */
+        synchronized void add(String text, long expiry) {
+            if (size < texts.length) {
+                texts[size] = text;
+                expiresAt[size] = expiry;
+                size++;
+                return;
+            }
+            int oldest = 0;
+            for (int i = 1; i < size; i++) {
+                if (expiresAt[i] - expiresAt[oldest] < 0) {
+                    oldest = i;
+                }
+            }
+            texts[oldest] = text;
+            expiresAt[oldest] = expiry;
+        }
+
+        synchronized int liveCount(long now) {
+            evictExpired(now);
+            return size;
+        }
+
+        private void evictExpired(long now) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (expiresAt[i] - now > 0) {
+                    texts[kept] = texts[i];
+                    expiresAt[kept] = expiresAt[i];
+                    kept++;
+                }
+            }
+            for (int i = kept; i < size; i++) {
+                texts[i] = null;
+            }
+            size = kept;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package Adventure_generator.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import Adventure_generator.Exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * BCrypt hashing on a dedicated, bounded executor.
+ *
+ * BCrypt is deliberately CPU-heavy. Running it on Tomcat workers lets a login burst pin
+ * every worker and starve cheap endpoints, so all hashing goes through this class instead.
+ *
+ * Behaviour:
+ * - Pool of auth.bcrypt.threads workers (default: available cores)
+ * - At most auth.bcrypt.queue-capacity tasks waiting, extra requests are rejected immediately
+ * - A queued task that doesn't finish within auth.bcrypt.wait-timeout-ms is cancelled
+ * - Both cases throw ServiceBusyException, mapped to 503 + Retry-After by the controllers
+ * - Cost factor from auth.bcrypt.strength; needsRehash tells whether a stored hash uses an older cost
+ * - encodeInBackground for best-effort work (login rehash): fire-and-forget, skipped while
+ *   anything is queued so it never delays a waiting login
+ *
+ * Metrics:
+ * - auth.bcrypt{op=encode|matches} - hash latency (time on the worker), percentile histogram
+ * - auth.bcrypt.rejected - requests shed because the executor was saturated
+ * - executor.* tagged name=bcrypt - active threads, queued tasks, queue remaining capacity
+ */
+@Service
+public class PasswordHasher {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.bcrypt.strength:10}")
+    private int strength;
+
+    /** 0 = one thread per available core. */
+    @Value("${auth.bcrypt.threads:0}")
+    private int threads;
+
+    @Value("${auth.bcrypt.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${auth.bcrypt.wait-timeout-ms:3000}")
+    private long waitTimeoutMs;
+
+    private BCryptPasswordEncoder encoder;
+    private ThreadPoolExecutor executor;
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Counter rejected;
+
+    /**
+     * Builds the encoder and executor once @Value properties are injected.
+     */
+    @PostConstruct
+    void init() {
+        encoder = new BCryptPasswordEncoder(strength);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIds = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            runnable -> {
+                Thread thread = new Thread(runnable, "bcrypt-" + threadIds.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        encodeTimer = Timer.builder("auth.bcrypt").tag("op", "encode").publishPercentileHistogram().register(meterRegistry);
+        matchesTimer = Timer.builder("auth.bcrypt").tag("op", "matches").publishPercentileHistogram().register(meterRegistry);
+        rejected = Counter.builder("auth.bcrypt.rejected").register(meterRegistry);
+        new ExecutorServiceMetrics(executor, "bcrypt", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param rawPassword Plain text password
+     * @return BCrypt hash at the configured strength
+     * @throws ServiceBusyException if the hashing executor is saturated
+     */
+    public String encode(String rawPassword) {
+        return run(() -> encodeTimer.record(() -> encoder.encode(rawPassword)));
+    }
+
+    /**
+     * @param rawPassword Plain text password
+     * @param hash Stored BCrypt hash
+     * @return true if the password matches the hash
+     * @throws ServiceBusyException if the hashing executor is saturated
+     */
+    public boolean matches(String rawPassword, String hash) {
+        return run(() -> matchesTimer.record(() -> encoder.matches(rawPassword, hash)));
+    }
+
+    /**
+     * Hashes on the executor without waiting for it; onEncoded runs on the hashing thread.
+     * Skipped (not counted as rejected) when tasks are already queued or the executor is full.
+     *
+     * @param rawPassword Plain text password
+     * @param onEncoded Receives the BCrypt hash at the configured strength
+     * @return true if the task was accepted
+     */
+    public boolean encodeInBackground(String rawPassword, Consumer<String> onEncoded) {
+        if (!executor.getQueue().isEmpty()) {
+            return false;
+        }
+        try {
+            executor.execute(() -> onEncoded.accept(encodeTimer.record(() -> encoder.encode(rawPassword))));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Cheap check (no hashing): whether a stored hash was made with a lower cost than configured.
+     */
+    public boolean needsRehash(String hash) {
+        return encoder.upgradeEncoding(hash);
+    }
+
+    // Private Helpers
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Authentication is busy, please retry shortly", 1, e);
+        }
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceBusyException("Authentication is busy, please retry shortly", 1, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package Adventure_generator.Service;
+
+/**
+ * Extension point for propagating user cache invalidations across nodes.
+ *
+ * UserLookupCache always evicts locally first, then notifies every hook bean.
+ * Single-node deployments need no implementation. For multi-node deployments,
+ * implement this to publish the change (Redis pub/sub, Postgres NOTIFY, a message
+ * broker...) and have the receiving side call UserLookupCache.evictLocal.
+ *
+ * Implementations must not block for long, they run on the request thread
+ * that changed the user.
+ */
+public interface UserCacheInvalidationHook {
+
+    /**
+     * Called after a user's cached entries were evicted locally.
+     *
+     * @param userName Username of the changed user, may be null
+     * @param email Email of the changed user (lowercase), may be null
+     */
+    void userChanged(String userName, String email);
+}
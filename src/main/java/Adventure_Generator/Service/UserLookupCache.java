@@ -0,0 +1,145 @@
+package Adventure_generator.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import Adventure_generator.Entity.User;
+import Adventure_generator.Repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Read-through cache in front of UserRepository.findByUserName / findByEmail.
+ *
+ * Handles:
+ * - Caching a small immutable projection of the user row (CachedUser), never JPA entities
+ *   and never the password hash (login reads it with one indexed query, see AuthenticationService)
+ * - Separate size- and TTL-bounded caches for username and email lookups
+ * - Invalidation on registration and profile updates (invalidate)
+ * - Cross-node invalidation through optional UserCacheInvalidationHook beans
+ *
+ * Unknown users are not cached, so a registration is visible immediately.
+ *
+ * Configuration (user.cache.*): max-size, ttl-minutes.
+ * Metrics: cache.gets{result=hit|miss} etc. tagged cache=users.byName / users.byEmail,
+ * hit ratio = hit / (hit + miss).
+ */
+@Service
+public class UserLookupCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserLookupCache.class);
+
+    /**
+     * Immutable id/username/email projection of a user row.
+     */
+    public record CachedUser(long id, String userName, String email) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getUserName(), user.getEmail());
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private List<UserCacheInvalidationHook> invalidationHooks = List.of();
+
+    @Value("${user.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${user.cache.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    private Cache<String, CachedUser> byUserName;
+    private Cache<String, CachedUser> byEmail;
+
+    /**
+     * Builds both caches once @Value properties are injected.
+     */
+    @PostConstruct
+    void initCaches() {
+        byUserName = newCache();
+        byEmail = newCache();
+        CaffeineCacheMetrics.monitor(meterRegistry, byUserName, "users.byName");
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "users.byEmail");
+    }
+
+    /**
+     * @param userName Exact username
+     * @return Cached projection, loaded from the database on a miss
+     */
+    public Optional<CachedUser> findByUserName(String userName) {
+        if (userName == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byUserName.get(userName,
+            key -> userRepository.findByUserName(key).map(CachedUser::of).orElse(null)));
+    }
+
+    /**
+     * @param email Email, compared case-insensitively (stored lowercase)
+     * @return Cached projection, loaded from the database on a miss
+     */
+    public Optional<CachedUser> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byEmail.get(email.toLowerCase(Locale.ROOT),
+            key -> userRepository.findByEmail(key).map(CachedUser::of).orElse(null)));
+    }
+
+    /**
+     * Evicts a user locally and notifies the invalidation hooks.
+     * Call after registering a user or changing username, email or password.
+     *
+     * @param userName Username (old and new should both be invalidated on a rename)
+     * @param email Email (old and new should both be invalidated on a change)
+     */
+    public void invalidate(String userName, String email) {
+        evictLocal(userName, email);
+        for (UserCacheInvalidationHook hook : invalidationHooks) {
+            try {
+                hook.userChanged(userName, email);
+            } catch (RuntimeException e) {
+                logger.warn("User cache invalidation hook {} failed: {}", hook.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Evicts a user from this node only, for hooks receiving invalidations from other nodes.
+     */
+    public void evictLocal(String userName, String email) {
+        if (userName != null) {
+            byUserName.invalidate(userName);
+        }
+        if (email != null) {
+            byEmail.invalidate(email.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    // Private Helpers
+    private Cache<String, CachedUser> newCache() {
+        return Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+            .recordStats()
+            .build();
+    }
+}
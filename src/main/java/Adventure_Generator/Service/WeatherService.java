@@ -1,45 +1,118 @@
 package Adventure_generator.Service;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import Adventure_generator.API.WeatherApiClient;
 import Adventure_generator.DTOs.Response.WeatherResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 
 /**
  * Service layer for weather data operations.
- * 
+ *
  * Handles business logic for:
  * - Geographic coordinate validation
  * - Weather data retrieval via external API
  * - Input sanitization for API calls
- * 
+ * - Caching weather per geographic cell
+ *
  * Validation Rules:
  * - Latitude: -90 to 90 degrees
  * - Longitude: -180 to 180 degrees
- * 
+ * - NaN and infinite values are rejected
+ *
+ * Caching (weather.cache.*):
+ * - Coordinates are rounded to a cell of weather.cache.precision decimals (2 ≈ 1 km),
+ *   the API is queried with the rounded cell coordinates at that same precision (locale
+ *   independent), so every user in a cell shares one entry that matches what was fetched
+ * - Entries older than refresh-minutes are still served while a background reload runs
+ *   (stale-while-revalidate); a failed reload keeps the stale entry
+ * - Entries are dropped after ttl-minutes, at most max-size cells are kept
+ * - Metrics: cache.gets / cache.puts / cache.evictions tagged with cache=weather
+ * - Async cache: a miss stores the in-flight API call as a future and callers wait on it
+ *   outside the cache's locks, so concurrent requests for one cell share one call and a
+ *   waiting virtual thread parks instead of pinning its carrier; failed loads aren't cached
+ *
  * Delegates actual API calls to WeatherApiClient.
  */
 @Service
 public class WeatherService {
-    
+
     @Autowired
     private WeatherApiClient weatherApiClient;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${weather.cache.precision:2}")
+    private int cachePrecision;
+
+    @Value("${weather.cache.refresh-minutes:5}")
+    private long cacheRefreshMinutes;
+
+    @Value("${weather.cache.ttl-minutes:10}")
+    private long cacheTtlMinutes;
+
+    @Value("${weather.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    /** Rounded coordinate cell, lat/lon scaled by 10^precision. */
+    record Cell(long lat, long lon) {}
+
+    private AsyncLoadingCache<Cell, WeatherResponse> weatherCache;
+    private double cellScale;
+
+    /**
+     * Builds the weather cache once @Value properties are injected.
+     */
+    @PostConstruct
+    void initWeatherCache() {
+        cellScale = Math.pow(10, cachePrecision);
+        weatherCache = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .refreshAfterWrite(Duration.ofMinutes(cacheRefreshMinutes))
+            .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+            .recordStats()
+            .buildAsync((cell, executor) -> weatherApiClient
+                .getWeatherByCoordinatesAsync(BigDecimal.valueOf(cell.lat(), cachePrecision),
+                    BigDecimal.valueOf(cell.lon(), cachePrecision))
+                .toFuture());
+        CaffeineCacheMetrics.monitor(meterRegistry, weatherCache.synchronous(), "weather");
+    }
+
     /**
      * Retrieves current weather data for given coordinates.
-     * 
+     *
+     * Served from the weather cache when the coordinate cell was queried recently.
+     *
      * @param lat Latitude in degrees (-90 to 90)
      * @param lon Longitude in degrees (-180 to 180)
      * @return WeatherResponse with current weather data
      * @throws IllegalArgumentException if coordinates are out of valid range
      */
     public WeatherResponse getCurrentWeather(double lat, double lon){
-        if(lat < -90 || lat > 90 || lon < -180 || lon > 180){
+        // Negated so NaN (every comparison false) is rejected too
+        if(!(lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180)){
             throw new IllegalArgumentException("Invalid coordinates, try again.");
         }
-        return weatherApiClient.getWeatherByCoordinates(lat, lon);
-
-    
+        try {
+            return weatherCache.get(new Cell(Math.round(lat * cellScale), Math.round(lon * cellScale))).join();
+        } catch (CompletionException e) {
+            // Rethrow the API client's exception as a synchronous load would have
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 }
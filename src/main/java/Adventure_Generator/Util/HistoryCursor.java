@@ -0,0 +1,51 @@
+package Adventure_generator.Util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset cursor for paging adventure history newest first.
+ *
+ * Identifies the last row of a page by (createdAt, id); the next page holds rows strictly
+ * older than it, with id breaking ties between rows created in the same instant.
+ * Seeking by key keeps every page O(page size) no matter how deep the client scrolls,
+ * unlike OFFSET which re-reads every skipped row.
+ *
+ * Wire format is opaque to clients: URL-safe Base64 of "createdAt|id".
+ *
+ * @param createdAt Creation timestamp of the last row returned
+ * @param id Id of the last row returned
+ */
+public record HistoryCursor(LocalDateTime createdAt, long id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * @return Opaque cursor string for the next-page request
+     */
+    public String encode() {
+        return ENCODER.encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor Cursor string as returned by encode()
+     * @return Decoded cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static HistoryCursor decode(String cursor) {
+        try {
+            String raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid history cursor");
+            }
+            return new HistoryCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid history cursor", e);
+        }
+    }
+}
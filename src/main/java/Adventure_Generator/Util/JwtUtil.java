@@ -1,23 +1,46 @@
 package Adventure_generator.Util;
 
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import Adventure_generator.DTOs.Response.UserData;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 
 /**
  * JWT (JSON Web Token) utility for stateless authentication.
@@ -41,7 +64,7 @@ import io.jsonwebtoken.SignatureAlgorithm;
  * 
  * TOKEN STRUCTURE (JWT):
  * - Header: Algorithm and token type {"alg": "HS512", "typ": "JWT"}
- * - Payload: User claims {"sub": "username", "iat": 1234567890, "exp": 1234999999}
+ * - Payload: User claims {"sub": "username", "uid": 42, "email": "...", "iat": 1234567890, "exp": 1234999999}
  * - Signature: HMACSHA512(base64(header) + "." + base64(payload), secret)
  * 
  * CONFIGURATION:
@@ -49,6 +72,24 @@ import io.jsonwebtoken.SignatureAlgorithm;
  * - Algorithm: HS512 (HMAC with SHA-512)
  * - Secret: Injected from application.properties (jwt.secret)
  * 
+ * KEYS & ROTATION:
+ * - Signing key and parser are built once at startup, both are immutable and thread-safe
+ * - New tokens carry a "kid" header (jwt.kid) naming the key that signed them
+ * - jwt.verification-keys ("kid:secret,kid:secret") lists older keys still accepted,
+ *   so rotating jwt.secret doesn't invalidate tokens already issued
+ * - The verification key is picked by kid with one map lookup; tokens without kid use jwt.secret
+ * 
+ * VERIFIED-TOKEN CACHE:
+ * - verifyToken() checks signature and expiry once and caches the claims
+ * - Keyed by SHA-256 of the token (raw bearer tokens are never kept as keys)
+ * - Each entry expires at the token's own exp claim, bounded by jwt.cache.max-size
+ * - Repeat requests with the same token skip HMAC verification and JSON decoding
+ * 
+ * METRICS:
+ * - auth.jwt.verify: verifyToken latency with percentile histogram, tagged
+ *   result=cached|verified|failed
+ * - auth.jwt.failures: rejected tokens, tagged reason=expired|signature|malformed|invalid|empty
+ * 
  * @see UserData
  * @see io.jsonwebtoken.Jwts
  */
@@ -69,6 +110,12 @@ public class JwtUtil implements Serializable {
      */
     public static final long JWT_TOKEN_VALIDITY = 30L * 24 * 60 * 60 * 1000; // 30 days
 
+    /** Claim holding the user's database id, lets requests skip the username lookup. */
+    public static final String USER_ID_CLAIM = "uid";
+
+    /** Claim holding the user's email. */
+    public static final String EMAIL_CLAIM = "email";
+
     /**
      * Secret key for signing tokens, injected from application.properties.
      * 
@@ -81,6 +128,115 @@ public class JwtUtil implements Serializable {
     @Value("${jwt.secret}")
     private String secret;
 
+    /** Key id written to the header of new tokens, identifies jwt.secret. */
+    @Value("${jwt.kid:primary}")
+    private String signingKeyId;
+
+    /**
+     * Additional keys accepted for verification only, "kid:secret" pairs separated by commas.
+     * Keep the previous secret here after a rotation until its tokens have expired.
+     */
+    @Value("${jwt.verification-keys:}")
+    private String verificationKeys;
+
+    /** Max number of verified tokens kept in the cache. */
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Autowired
+    private transient MeterRegistry meterRegistry;
+
+    /** SHA-256(token) → verified claims, each entry expires at the token's exp. */
+    private transient Cache<ByteBuffer, Claims> verifiedTokens;
+
+    private transient SecretKey signingKey;
+
+    /** kid → verification key, includes the current signing key. */
+    private transient Map<String, SecretKey> keysById;
+
+    /** Shared parser, resolves the verification key from the kid header. */
+    private transient JwtParser jwtParser;
+
+    private transient Timer cachedTimer;
+    private transient Timer verifiedTimer;
+    private transient Timer failedTimer;
+
+    /** auth.jwt.failures counters by reason tag, registered once in init(). */
+    private transient Map<String, Counter> failures;
+
+    /**
+     * Builds keys, parser and the verified-token cache once @Value properties are injected.
+     */
+    @PostConstruct
+    void init() {
+        signingKey = toKey(secret);
+
+        Map<String, SecretKey> keys = new HashMap<>();
+        if (verificationKeys != null && !verificationKeys.isBlank()) {
+            for (String entry : verificationKeys.split(",")) {
+                int separator = entry.indexOf(':');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("jwt.verification-keys entries must be 'kid:secret'");
+                }
+                keys.put(entry.substring(0, separator).trim(), toKey(entry.substring(separator + 1).trim()));
+            }
+        }
+        keys.put(signingKeyId, signingKey);
+        keysById = Map.copyOf(keys);
+
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        String kid = header.getKeyId();
+                        if (kid == null) {
+                            return signingKey; // issued before kid headers were added
+                        }
+                        SecretKey key = keysById.get(kid);
+                        if (key == null) {
+                            throw new JwtException("Unknown JWT key id: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<ByteBuffer, Claims>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+                        Date expiration = claims.getExpiration();
+                        if (expiration == null) {
+                            return 0; // no exp claim, don't cache
+                        }
+                        long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt");
+
+        cachedTimer = verifyTimer("cached");
+        verifiedTimer = verifyTimer("verified");
+        failedTimer = verifyTimer("failed");
+        failures = new HashMap<>();
+        for (String reason : List.of("expired", "signature", "malformed", "invalid", "empty")) {
+            failures.put(reason, Counter.builder("auth.jwt.failures").tag("reason", reason).register(meterRegistry));
+        }
+    }
+
     /**
      * Generates a JWT token for authenticated user with default 30-day expiration.
      * 
@@ -98,15 +254,26 @@ public class JwtUtil implements Serializable {
      * @return Signed JWT token string (e.g., "eyJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJ...")
      */
     public String generateToken(UserData userData){
+        return doGenerateToken(userClaims(userData), userData.getUserName(), JWT_TOKEN_VALIDITY);        
+    }
+
+    /**
+     * Identity claims embedded in every token (uid, email), see AuthenticatedUser.
+     */
+    private static Map<String, Object> userClaims(UserData userData){
         Map<String, Object> claims = new HashMap<>();
-        return doGenerateToken(claims, userData.getUserName(), JWT_TOKEN_VALIDITY);        
+        claims.put(USER_ID_CLAIM, userData.getUserId());
+        if (userData.getEmail() != null) {
+            claims.put(EMAIL_CLAIM, userData.getEmail());
+        }
+        return claims;
     }
     
     /**
      * Internal method to construct and sign JWT token.
      * 
      * TOKEN COMPONENTS:
-     * - Claims: Custom key-value pairs (currently empty, can add roles/permissions)
+     * - Claims: Custom key-value pairs (uid and email, can add roles/permissions)
      * - Subject: Username (primary identifier)
      * - IssuedAt: Token creation timestamp
      * - Expiration: Token expiry timestamp (current time + validity period)
@@ -123,12 +290,14 @@ public class JwtUtil implements Serializable {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiryMillis))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeyId)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
     
     /**
      * Creates SecretKey instance from secret string for token signing and validation.
+     * Called once per configured key at startup.
      * 
      * SECURITY NOTE:
      * - Converts UTF-8 string to byte array
@@ -137,7 +306,7 @@ public class JwtUtil implements Serializable {
      * 
      * @return SecretKey instance for token signing and validation
      */
-    private SecretKey getSigningKey(){
+    private static SecretKey toKey(String secret){
         byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8); 
         return new SecretKeySpec(keyBytes, SignatureAlgorithm.HS512.getJcaName());
     }
@@ -148,16 +317,15 @@ public class JwtUtil implements Serializable {
      * SECURITY:
      * - Validates signature using secret key (prevents token tampering)
      * - Throws JwtException if signature is invalid or token is malformed
-     * - Requires exact secret key that was used to sign the token
+     * - Verification key is selected by the kid header (current or rotated-out key)
+     * - Uses the shared, pre-built parser (no per-call key or parser allocation)
      * 
      * @param token JWT token string to parse
      * @return Claims object containing all token payload data
      * @throws io.jsonwebtoken.JwtException if token is invalid or signature doesn't match
      */
     private Claims getAllClaimsFromToken(String token){
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -177,9 +345,86 @@ public class JwtUtil implements Serializable {
      * @return Extracted claim value of type T
      */
     public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver){
-        final Claims claims = getAllClaimsFromToken(token);
+        final Claims claims = verifyToken(token);
         return claimsResolver.apply(claims);
     }
+
+    /**
+     * Verifies the token once and returns its claims.
+     * 
+     * Signature and expiration are checked on the first call for a token; the verified
+     * claims are then served from the cache until the token's exp, so later requests
+     * carrying the same token skip HMAC verification and JSON decoding entirely.
+     * 
+     * The returned Claims are shared between requests and must not be modified.
+     * 
+     * @param token JWT token string
+     * @return Verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is invalid, tampered with or expired
+     * @throws IllegalArgumentException if the token is null or empty
+     */
+    public Claims verifyToken(String token){
+        if (token == null || token.isEmpty()) {
+            failure("empty");
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+        long start = System.nanoTime();
+        ByteBuffer key = sha256(token);
+        Claims cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        Claims claims;
+        try {
+            claims = getAllClaimsFromToken(token); // throws on bad signature or expired token
+        } catch (RuntimeException e) {
+            failedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            failure(failureReason(e));
+            throw e;
+        }
+        verifiedTokens.put(key, claims);
+        verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
+    }
+
+    private Timer verifyTimer(String result){
+        return Timer.builder("auth.jwt.verify")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(500))
+                .maximumExpectedValue(Duration.ofMillis(50))
+                .register(meterRegistry);
+    }
+
+    private void failure(String reason){
+        failures.get(reason).increment();
+    }
+
+    /**
+     * Fixed reason code for a verification failure, the reason tag of auth.jwt.failures.
+     * Safe to log, unlike some jjwt messages which embed the decoded header or claims.
+     */
+    public static String failureReason(Exception e){
+        if (e instanceof ExpiredJwtException) {
+            return "expired";
+        }
+        if (e instanceof SignatureException) {
+            return "signature";
+        }
+        if (e instanceof MalformedJwtException || e instanceof IllegalArgumentException) {
+            return "malformed";
+        }
+        return "invalid"; // unsupported token type, unknown kid
+    }
+
+    private static ByteBuffer sha256(String token){
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
     
     /**
      * Extracts username from JWT token subject claim.
@@ -204,27 +449,12 @@ public class JwtUtil implements Serializable {
         return getClaimFromToken(token, Claims::getExpiration);
     }
     
-    /**
-     * Checks if token has expired based on current system time.
-     * 
-     * @param token JWT token string
-     * @return true if token expiration date is before current time, false otherwise
-     */
-    private Boolean isTokenExpired(String token){
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
-    }
-    
     /**
      * Validates JWT token signature and expiration.
      * 
      * VALIDATION STEPS:
-     * 1. Extract username from token subject claim
-     * 2. Verify token signature using secret key (prevents tampering)
-     * 3. Compare extracted username with expected username
-     * 4. Check expiration timestamp
-     * 
-     * Used by JwtAuthenticationFilter to authenticate requests.
+     * 1. Verify token signature and expiration once (see verifyToken)
+     * 2. Compare the subject claim with expected username
      * 
      * @param token JWT token to validate
      * @param username Expected username to match against token subject
@@ -232,8 +462,8 @@ public class JwtUtil implements Serializable {
      */
     public Boolean validateToken(String token, String username){
         try {
-            final String userName = getUsernameFromToken(token);
-            return (userName.equals(username) && !isTokenExpired(token));
+            final Claims claims = verifyToken(token);
+            return username != null && username.equals(claims.getSubject());
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
@@ -252,6 +482,6 @@ public class JwtUtil implements Serializable {
      * @return Signed JWT token with custom expiration
      */
     public String generateTokenWithCustomExpiry(UserData userData, long expiryMillis){
-        return doGenerateToken(new HashMap<>(), userData.getUserName(), expiryMillis);
+        return doGenerateToken(userClaims(userData), userData.getUserName(), expiryMillis);
     }
 }
@@ -0,0 +1,63 @@
+package Adventure_generator.Util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-logger rate limit for log statements on hot or client-triggerable paths.
+ *
+ * Lets up to permitsPerSecond statements through per one-second window and counts the rest,
+ * so the next statement that does get through can report how many were dropped. A client
+ * replaying a bad token, or a Gemini outage, then costs a handful of log lines per second
+ * instead of a stack trace per request.
+ *
+ * tryAcquire() is two atomic reads and one increment, no allocation, so it is safe to call
+ * on every request. Pair it with the level check (isDebugEnabled() && tryAcquire()) so
+ * disabled statements never touch the counters at all.
+ *
+ * The window reset is approximate under contention (a few extra permits can slip through at a
+ * window boundary), which is fine for logging.
+ */
+public final class LogRateLimiter {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int permitsPerSecond;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    /**
+     * @param permitsPerSecond Statements allowed per second, must be positive
+     */
+    public LogRateLimiter(int permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    /**
+     * @return true if the statement may be logged, false if it is over this second's limit
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.get() < permitsPerSecond && used.incrementAndGet() <= permitsPerSecond) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * @return Statements dropped since the previous call, resets the count
+     */
+    public long drainSuppressed() {
+        return suppressed.getAndSet(0);
+    }
+}
@@ -0,0 +1,38 @@
+package Adventure_generator.Util;
+
+/**
+ * Log argument for an Authorization header or bare JWT that never prints the credential.
+ *
+ * Renders as scheme + the last few characters of the signature + length, e.g.
+ * "Bearer …x9fQ2w (len=187)", enough to tell two tokens apart in a log without making
+ * either one replayable. "none" when the header is absent.
+ *
+ * Nothing is built until the logging framework formats the message, so passing one to a
+ * statement that ends up filtered costs only this object, and nothing at all behind a level check.
+ *
+ * @param value Raw header value or token, may be null
+ */
+public record RedactedToken(CharSequence value) {
+
+    private static final int VISIBLE_TAIL = 6;
+    private static final String BEARER = "Bearer ";
+
+    public static RedactedToken of(CharSequence value) {
+        return new RedactedToken(value);
+    }
+
+    @Override
+    public String toString() {
+        if (value == null) {
+            return "none";
+        }
+        int length = value.length();
+        boolean bearer = length >= BEARER.length() && BEARER.contentEquals(value.subSequence(0, BEARER.length()));
+        int tokenLength = bearer ? length - BEARER.length() : length;
+        // Short values are shown as length only, a 6-char tail of a short secret is too much of it
+        if (tokenLength <= VISIBLE_TAIL * 4) {
+            return (bearer ? BEARER : "") + "*** (len=" + tokenLength + ")";
+        }
+        return (bearer ? BEARER : "") + "…" + value.subSequence(length - VISIBLE_TAIL, length) + " (len=" + tokenLength + ")";
+    }
+}
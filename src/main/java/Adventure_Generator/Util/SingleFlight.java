@@ -0,0 +1,75 @@
+package Adventure_generator.Util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Request coalescing ("single-flight") for reactive calls.
+ *
+ * Concurrent callers asking for the same key share one in-flight upstream call
+ * and all receive its result (or error). The key is forgotten as soon as the call
+ * terminates, so nothing is cached: the next caller after completion starts a new call.
+ *
+ * Works for blocking callers too, they simply block on the shared Mono.
+ *
+ * Metrics (tagged with name):
+ * - singleflight.calls - upstream calls actually started
+ * - singleflight.coalesced - callers that joined an existing in-flight call
+ * - singleflight.inflight - keys currently in flight
+ *
+ * @param <K> Key type, must have value-based equals/hashCode
+ * @param <V> Result type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter calls;
+    private final Counter coalesced;
+
+    /**
+     * @param name Metric tag identifying this single-flight group (e.g. "gemini")
+     * @param meterRegistry Registry for call/coalesced metrics
+     */
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.calls = Counter.builder("singleflight.calls").tag("name", name).register(meterRegistry);
+        this.coalesced = Counter.builder("singleflight.coalesced").tag("name", name).register(meterRegistry);
+        Gauge.builder("singleflight.inflight", inFlight, ConcurrentHashMap::size).tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Runs the call for this key, or joins the one already in flight.
+     *
+     * @param key Identity of the request (e.g. the full prompt)
+     * @param call Supplier of the upstream call, only invoked by the first caller
+     * @return Mono shared by every concurrent caller with the same key
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            Flight<V> flight = new Flight<>();
+            flight.result = Mono.defer(call)
+                // Forget the key before the result reaches any caller, so a caller that
+                // reacts to it (or comes right after) starts a fresh call instead of reusing it
+                .doOnEach(signal -> inFlight.remove(key, flight))
+                .doFinally(signal -> inFlight.remove(key, flight))
+                .cache();
+
+            Flight<V> existing = inFlight.putIfAbsent(key, flight);
+            if (existing != null) {
+                coalesced.increment();
+                return existing.result;
+            }
+            calls.increment();
+            return flight.result;
+        });
+    }
+
+    /** Holder so the map entry can be removed by identity once the call terminates. */
+    private static final class Flight<V> {
+        private Mono<V> result;
+    }
+}
@@ -0,0 +1,123 @@
+package Adventure_generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Adventure_generator.Catalog.CatalogSnapshot;
+import Adventure_generator.Catalog.FileCatalogSource;
+import Adventure_generator.Service.AdventureCatalogService;
+import Adventure_generator.Service.AdventureCatalogService.ReloadOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdventureCatalogServiceTest {
+
+    private static final String PICNIC = "{\"mood\":\"happy\",\"weather\":\"clear\",\"adventure\":\"Picnic\"}";
+    private static final String MUSEUM = "{\"mood\":\"happy\",\"weather\":\"rain\",\"adventure\":\"Museum\"}";
+    private static final String KITE = "{\"mood\":\"happy\",\"weather\":\"clear\",\"adventure\":\"Fly a kite\"}";
+    private static final String CALL = "{\"mood\":\"happy\",\"weather\":\"any\",\"distance\":\"long-distance\",\"adventure\":\"Video call\"}";
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private AdventureCatalogService service;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() throws IOException {
+        file = dir.resolve("adventures.json");
+        write(PICNIC, MUSEUM, CALL);
+
+        meterRegistry = new SimpleMeterRegistry();
+        service = new AdventureCatalogService();
+        ReflectionTestUtils.setField(service, "catalogSource", new FileCatalogSource(file));
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "pollIntervalMs", 0L);
+        ReflectionTestUtils.setField(service, "debounceMs", 50L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(service, "shutdown");
+    }
+
+    @Test
+    @DisplayName("a changed file is swapped in as a new version, the old snapshot stays intact")
+    void fileChange_publishesNewSnapshot() throws IOException {
+        ReflectionTestUtils.invokeMethod(service, "init");
+        CatalogSnapshot first = service.current();
+        assertThat(first.version()).isEqualTo(1);
+        assertThat(first.catalog().lookup("happy", "clear", false)).containsExactly("Picnic");
+
+        write(PICNIC, KITE, MUSEUM, CALL);
+        await(() -> service.current().version() == 2);
+
+        assertThat(service.current().catalog().lookup("happy", "clear", false)).containsExactly("Picnic", "Fly a kite");
+        assertThat(service.current().checksum()).isNotEqualTo(first.checksum());
+        // A request still holding the previous snapshot keeps a complete, unchanged catalog
+        assertThat(first.catalog().lookup("happy", "clear", false)).containsExactly("Picnic");
+        assertThat(meterRegistry.get("adventures.catalog.version").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("adventures.catalog.ideas").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("malformed, invalid, shrinking and unchanged reloads keep the live catalog")
+    void reload_validatesBeforePublishing() throws IOException {
+        ReflectionTestUtils.invokeMethod(service, "initMetrics");
+        assertThat(service.reload("test")).isEqualTo(ReloadOutcome.LOADED);
+        CatalogSnapshot live = service.current();
+
+        Files.writeString(file, "[" + PICNIC + ",");
+        assertThat(service.reload("test")).isEqualTo(ReloadOutcome.FAILED);
+
+        write(PICNIC, MUSEUM, "{\"weather\":\"clear\",\"adventure\":\"No mood\"}");
+        assertThat(service.reload("test")).isEqualTo(ReloadOutcome.REJECTED);
+
+        write(PICNIC, MUSEUM, "{\"mood\":\"happy\",\"weather\":\"clear\",\"distance\":\"far\",\"adventure\":\"Trip\"}");
+        assertThat(service.reload("test")).isEqualTo(ReloadOutcome.REJECTED);
+
+        write(PICNIC); // a third of the live catalog, over max-shrink-ratio 0.5
+        assertThat(service.reload("test")).isEqualTo(ReloadOutcome.REJECTED);
+
+        write(PICNIC, MUSEUM, CALL);
+        assertThat(service.reload("test")).isEqualTo(ReloadOutcome.UNCHANGED);
+
+        assertThat(service.current()).isSameAs(live);
+        assertThat(meterRegistry.counter("adventures.catalog.reloads", "outcome", "loaded").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("adventures.catalog.reloads", "outcome", "failed").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("adventures.catalog.reloads", "outcome", "rejected").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("adventures.catalog.reloads", "outcome", "unchanged").count()).isEqualTo(1);
+    }
+
+    /** Writes a temp file and renames it over the catalog, as deploy tooling does. */
+    private void write(String... ideas) throws IOException {
+        Path temp = Files.writeString(dir.resolve("adventures.json.tmp"), "[" + String.join(",", ideas) + "]");
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -2,11 +2,16 @@ package Adventure_generator;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,19 +19,35 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import Adventure_generator.Config.AuthenticatedUser;
 import Adventure_generator.Controller.AdventureController;
 import Adventure_generator.DTOs.Requests.AdventureRequest;
+import Adventure_generator.DTOs.Response.AdventureHistoryPage;
 import Adventure_generator.DTOs.Response.AdventureResponse;
+import Adventure_generator.DTOs.Response.AdventureSummary;
 import Adventure_generator.Entity.Adventure;
 import Adventure_generator.Entity.User;
 import Adventure_generator.Repository.UserRepository;
 import Adventure_generator.Service.AdventureService;
+import Adventure_generator.Service.FavouriteService;
+import Adventure_generator.Service.GeminiAdventureService;
+import Adventure_generator.Service.UserLookupCache;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
 
 @ExtendWith(MockitoExtension.class)
 class AdventureControllerTest {
@@ -34,9 +55,21 @@ class AdventureControllerTest {
     @Mock
     private AdventureService adventureService;
 
+    @Mock
+    private GeminiAdventureService geminiAdventureService;
+
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserLookupCache userLookupCache;
+
+    @Mock
+    private FavouriteService favouriteService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private AdventureController adventureController;
 
@@ -50,6 +83,11 @@ class AdventureControllerTest {
         return user;
     }
 
+    private void stubUserLookup(User user) {
+        when(userLookupCache.findByUserName(eq("controllerUser"))).thenReturn(java.util.Optional.of(
+            new UserLookupCache.CachedUser(user.getId(), user.getUserName(), user.getEmail())));
+    }
+
     private void setAuthentication(User user) {
         Authentication auth = new UsernamePasswordAuthenticationToken(user.getUserName(), null, List.of());
         SecurityContextHolder.getContext().setAuthentication(auth);
@@ -71,19 +109,22 @@ class AdventureControllerTest {
         request.setWeather("clear");
         request.setLongDistance(false);
 
-        when(userRepository.findByUserName(eq("controllerUser"))).thenReturn(java.util.Optional.of(user));
-        when(adventureService.generateAdventure(eq("happy"), eq("clear"), eq(false))).thenReturn("Picnic");
+        stubUserLookup(user);
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(adventureService.generateAdventure(eq("happy"), eq("clear"), eq(false), eq(1L))).thenReturn("Picnic");
         Adventure saved = new Adventure("Picnic", user, "happy", "clear", false);
         saved.setId(5L);
         when(adventureService.saveAdventure(eq("Picnic"), eq(user), eq("happy"), eq("clear"), eq(false))).thenReturn(saved);
 
-        ResponseEntity<AdventureResponse> response = adventureController.generateAdventure(request);
+        ResponseEntity<AdventureResponse> response = adventureController.generateAdventure(request).block();
 
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().getAdventureIdea()).isEqualTo("Picnic");
         assertThat(response.getBody().getAdventureId()).isEqualTo(5L);
         assertThat(response.getBody().getUsername()).isEqualTo("controllerUser");
+        assertThat(meterRegistry.get("adventures.generate").tags("mode", "static", "outcome", "success").timer().count())
+            .isEqualTo(1);
     }
 
     @Test
@@ -92,15 +133,119 @@ class AdventureControllerTest {
         User user = buildUser();
         setAuthentication(user);
 
-        when(userRepository.findByUserName(eq("controllerUser"))).thenReturn(java.util.Optional.of(user));
-        Adventure adv = new Adventure("Hike", user, "energetic", "clear", false);
-        adv.setId(2L);
-        when(adventureService.getUserAdventures(user.getId())).thenReturn(List.of(adv));
+        stubUserLookup(user);
+        AdventureSummary adv = new AdventureSummary(2L, "Hike", "energetic", "clear", false, LocalDateTime.now());
+        when(adventureService.getUserAdventureHistory(user.getId(), null, 20))
+            .thenReturn(new AdventureHistoryPage(List.of(adv), null));
+        when(favouriteService.favouritedAmong(user.getId(), List.of(2L))).thenReturn(Set.of(2L));
+
+        ResponseEntity<AdventureHistoryPage> response = adventureController.getUserAdventureHistory(20, null);
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody().getAdventures()).hasSize(1);
+        assertThat(response.getBody().getAdventures().get(0).adventure()).isEqualTo("Hike");
+        assertThat(response.getBody().getNextCursor()).isNull();
+        assertThat(response.getBody().getFavouriteIds()).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("GET /history with a malformed cursor returns 400")
+    void getHistory_badCursor() {
+        User user = buildUser();
+        setAuthentication(user);
+
+        stubUserLookup(user);
+        when(adventureService.getUserAdventureHistory(user.getId(), "garbage", 20))
+            .thenThrow(new IllegalArgumentException("Invalid history cursor"));
+
+        ResponseEntity<AdventureHistoryPage> response = adventureController.getUserAdventureHistory(20, "garbage");
+
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("POST /generate uses the id from the JWT principal without a user lookup")
+    void generateAdventure_withAuthenticatedUserPrincipal() {
+        User user = buildUser();
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "controllerUser", "controller@test.com");
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+
+        AdventureRequest request = new AdventureRequest();
+        request.setMood("happy");
+        request.setWeather("clear");
+        request.setLongDistance(false);
+
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(adventureService.generateAdventure(eq("happy"), eq("clear"), eq(false), eq(1L))).thenReturn("Picnic");
+        Adventure saved = new Adventure("Picnic", user, "happy", "clear", false);
+        saved.setId(6L);
+        when(adventureService.saveAdventure(eq("Picnic"), eq(user), eq("happy"), eq("clear"), eq(false))).thenReturn(saved);
 
-        ResponseEntity<List<Adventure>> response = adventureController.getUserAdventureHistory();
+        ResponseEntity<AdventureResponse> response = adventureController.generateAdventure(request).block();
 
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
-        assertThat(response.getBody()).hasSize(1);
-        assertThat(response.getBody().get(0).getAdventure()).isEqualTo("Hike");
+        assertThat(response.getBody().getAdventureId()).isEqualTo(6L);
+        assertThat(response.getBody().getUsername()).isEqualTo("controllerUser");
+        verify(userLookupCache, never()).findByUserName(anyString());
+    }
+
+    @Test
+    @DisplayName("POST /generate for a user deleted after the JWT was issued returns 401, not 500")
+    void generateAdventure_deletedUserIsUnauthorized() {
+        User user = buildUser();
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "controllerUser", "controller@test.com");
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+
+        AdventureRequest request = new AdventureRequest();
+        request.setMood("happy");
+        request.setWeather("clear");
+        request.setLongDistance(false);
+
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(adventureService.generateAdventure(eq("happy"), eq("clear"), eq(false), eq(1L))).thenReturn("Picnic");
+        when(adventureService.saveAdventure(eq("Picnic"), eq(user), eq("happy"), eq("clear"), eq(false)))
+            .thenThrow(new DataIntegrityViolationException("FK_ADVENTURE_USER"));
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        ResponseEntity<AdventureResponse> response = adventureController.generateAdventure(request).block();
+
+        assertThat(response.getStatusCode().value()).isEqualTo(401);
+        assertThat(meterRegistry.get("adventures.generate").tags("mode", "static", "outcome", "error").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("POST /chat maps Gemini failures to 500/503 with the message in the reply field")
+    void chat_mapsGeminiErrors() {
+        when(geminiAdventureService.chatAsync("hi"))
+            .thenReturn(Mono.error(new RuntimeException("Gemini API error: 500")))
+            .thenReturn(Mono.error(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("gemini"))));
+
+        ResponseEntity<Map<String, String>> failed = adventureController.chat(Map.of("message", "hi")).block();
+        ResponseEntity<Map<String, String>> rejected = adventureController.chat(Map.of("message", "hi")).block();
+
+        assertThat(failed.getStatusCode().value()).isEqualTo(500);
+        assertThat(failed.getBody()).containsOnlyKeys("reply");
+        assertThat(failed.getBody().get("reply")).startsWith("An error occurred while chatting");
+        assertThat(rejected.getStatusCode().value()).isEqualTo(503);
+        assertThat(rejected.getBody()).containsOnlyKeys("reply");
+    }
+
+    @Test
+    @DisplayName("POST /mood/predict answers a failure with prediction-shaped JSON")
+    void predictMood_mapsGeminiErrors() throws Exception {
+        when(geminiAdventureService.predictMoodAsync("rain", "evening", "autumn"))
+            .thenReturn(Mono.error(new RuntimeException("Gemini API error: 500")));
+
+        ResponseEntity<String> failed = adventureController.predictMood(
+            Map.of("weather", "rain", "timeOfDay", "evening", "season", "autumn")).block();
+
+        assertThat(failed.getStatusCode().value()).isEqualTo(500);
+        JsonNode body = new ObjectMapper().readTree(failed.getBody());
+        assertThat(body.get("mood").isNull()).isTrue();
+        assertThat(body.get("confidence").asDouble()).isZero();
+        assertThat(body.get("reason").asText()).startsWith("An error occurred while predicting mood");
     }
 }
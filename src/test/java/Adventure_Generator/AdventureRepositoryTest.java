@@ -3,16 +3,25 @@ package Adventure_generator;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
+import Adventure_generator.DTOs.Response.AdventureSummary;
 import Adventure_generator.Entity.Adventure;
 import Adventure_generator.Entity.User;
+import Adventure_generator.Catalog.DatabaseCatalogSource;
+import Adventure_generator.Entity.CatalogIdea;
+import Adventure_generator.POJO.AdventureIdea;
 import Adventure_generator.Repository.AdventureRepository;
+import Adventure_generator.Repository.CatalogIdeaRepository;
 import Adventure_generator.Repository.UserRepository;
 
 @DataJpaTest
@@ -24,6 +33,12 @@ class AdventureRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CatalogIdeaRepository catalogIdeaRepository;
+
     private User buildUser() {
         User user = new User();
         user.setEmail("repo@test.com");
@@ -76,4 +91,41 @@ class AdventureRepositoryTest {
         assertThat(results).hasSize(1);
         assertThat(results.get(0).getAdventure()).isEqualTo(target.getAdventure());
     }
+
+    @Test
+    @DisplayName("keyset history pages walk every adventure once, newest first")
+    void findHistoryPages_walkNewestFirstWithoutGaps() {
+        User user = buildUser();
+        for (int i = 0; i < 5; i++) {
+            buildAdventure(user, "Adventure " + i, "happy", "clear", false);
+        }
+        // Read timestamps back at column precision, as a real request would
+        entityManager.flush();
+        entityManager.clear();
+
+        List<AdventureSummary> walked = new ArrayList<>();
+        List<AdventureSummary> page = adventureRepository.findHistoryFirstPage(user.getId(), Limit.of(2));
+        while (!page.isEmpty() && walked.size() <= 5) {
+            walked.addAll(page);
+            AdventureSummary last = page.get(page.size() - 1);
+            page = adventureRepository.findHistoryPageBefore(user.getId(), last.createdAt(), last.id(), Limit.of(2));
+        }
+
+        assertThat(walked).extracting(AdventureSummary::id).hasSize(5).doesNotHaveDuplicates();
+        assertThat(walked).isSortedAccordingTo(
+            Comparator.comparing(AdventureSummary::createdAt).thenComparing(AdventureSummary::id).reversed());
+        assertThat(walked.get(0).adventure()).startsWith("Adventure ");
+    }
+
+    @Test
+    @DisplayName("DatabaseCatalogSource reads adventure_catalog rows in id order")
+    void databaseCatalogSource_loadsRowsInIdOrder() throws Exception {
+        catalogIdeaRepository.save(new CatalogIdea("happy", "clear", null, "Picnic"));
+        catalogIdeaRepository.save(new CatalogIdea("romantic", "any", "long-distance", "Watch the same sunset"));
+
+        List<AdventureIdea> ideas = new DatabaseCatalogSource(catalogIdeaRepository).load();
+
+        assertThat(ideas).extracting(AdventureIdea::getAdventure).containsExactly("Picnic", "Watch the same sunset");
+        assertThat(ideas.get(1).getDistance()).isEqualTo("long-distance");
+    }
 }
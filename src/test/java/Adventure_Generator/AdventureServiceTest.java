@@ -2,12 +2,19 @@ package Adventure_generator;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,11 +23,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import Adventure_generator.Catalog.ClasspathCatalogSource;
+import Adventure_generator.Catalog.DailyAdventureSelector;
+import Adventure_generator.DTOs.Response.AdventureHistoryPage;
+import Adventure_generator.DTOs.Response.AdventureSummary;
 import Adventure_generator.Entity.Adventure;
 import Adventure_generator.Entity.User;
+import Adventure_generator.POJO.AdventureIdea;
 import Adventure_generator.Repository.AdventureRepository;
+import Adventure_generator.Service.AdventureCatalogService;
 import Adventure_generator.Service.AdventureService;
+import Adventure_generator.Service.AdventureWriteBehind;
+import Adventure_generator.Util.HistoryCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class AdventureServiceTest {
@@ -28,13 +48,32 @@ class AdventureServiceTest {
     @Mock
     private AdventureRepository adventureRepository;
 
+    @Mock
+    private AdventureWriteBehind writeBehind;
+
     @InjectMocks
     private AdventureService adventureService;
 
+    private static final String NO_ADVENTURE = "No adventure found for this mood, weather, and preference!";
+
     private User user;
 
+    private SimpleMeterRegistry meterRegistry;
+
+    private AdventureCatalogService catalogService;
+
     @BeforeEach
     void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(adventureService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(adventureService, "initMetrics");
+
+        catalogService = new AdventureCatalogService();
+        ReflectionTestUtils.setField(catalogService, "catalogSource", new ClasspathCatalogSource("/adventures.json"));
+        ReflectionTestUtils.setField(catalogService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(catalogService, "initMetrics");
+        ReflectionTestUtils.setField(adventureService, "catalogService", catalogService);
+
         user = new User();
         user.setId(1L);
         user.setEmail("service@test.com");
@@ -63,6 +102,56 @@ class AdventureServiceTest {
         verify(adventureRepository, times(1)).save(any(Adventure.class));
     }
 
+    @Test
+    @DisplayName("generateAdventure picks only from the matching mood, weather and distance")
+    void generateAdventure_usesMatchingBucket() throws Exception {
+        catalogService.reload("test");
+
+        AdventureIdea[] ideas = new ObjectMapper().readValue(
+            getClass().getResourceAsStream("/adventures.json"), AdventureIdea[].class);
+        Set<String> expected = Arrays.stream(ideas)
+            .filter(a -> a.getMood().equals("happy") && a.getWeather().equals("clear") && a.getDistance() == null)
+            .map(AdventureIdea::getAdventure)
+            .collect(Collectors.toSet());
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(adventureService.generateAdventure("happy", "clear", false)).isIn(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("generateAdventure is case-insensitive and serves long-distance ideas for any weather")
+    void generateAdventure_longDistanceAnyWeather() {
+        catalogService.reload("test");
+
+        assertThat(adventureService.generateAdventure("HAPPY", "Snow", true)).isNotEqualTo(NO_ADVENTURE);
+        assertThat(adventureService.generateAdventure("happy", "hail", true)).isNotEqualTo(NO_ADVENTURE);
+        assertThat(adventureService.generateAdventure("happy", "hail", false)).isEqualTo(NO_ADVENTURE);
+    }
+
+    @Test
+    @DisplayName("generateAdventure returns fallback message for unknown mood and counts the miss")
+    void generateAdventure_unknownMood() {
+        catalogService.reload("test");
+
+        assertThat(adventureService.generateAdventure("Neutral", "clear", false)).isEqualTo(NO_ADVENTURE);
+        assertThat(meterRegistry.counter("adventures.catalog.misses").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("adventures.catalog.bucket.size").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("daily selection returns the same adventure for the same user and day")
+    void generateAdventure_dailySelectionIsStable() {
+        catalogService.reload("test");
+        Clock clock = Clock.fixed(Instant.parse("2026-02-14T12:00:00Z"), ZoneOffset.UTC);
+        ReflectionTestUtils.setField(adventureService, "adventureSelector", new DailyAdventureSelector(clock));
+
+        String first = adventureService.generateAdventure("romantic", "snow", false, 42L);
+        for (int i = 0; i < 20; i++) {
+            assertThat(adventureService.generateAdventure("ROMANTIC", "snow", false, 42L)).isEqualTo(first);
+        }
+    }
+
     @Test
     @DisplayName("getUserAdventures delegates to repository")
     void getUserAdventures_returnsList() {
@@ -75,4 +164,20 @@ class AdventureServiceTest {
         assertThat(result.get(0).getAdventure()).isEqualTo("Read");
         verify(adventureRepository, times(1)).findByUserIdOrderByCreatedAtDesc(user.getId());
     }
+
+    @Test
+    @DisplayName("getUserAdventureHistory fetches one extra row and returns a cursor at the last row shown")
+    void getUserAdventureHistory_returnsNextCursor() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<AdventureSummary> rows = List.of(
+            new AdventureSummary(3L, "Hike", "energetic", "clear", false, now),
+            new AdventureSummary(2L, "Movie", "relaxed", "rain", false, now.minusMinutes(1)),
+            new AdventureSummary(1L, "Read", "relaxed", "rain", false, now.minusMinutes(2)));
+        when(adventureRepository.findHistoryFirstPage(eq(1L), eq(Limit.of(3)))).thenReturn(rows);
+
+        AdventureHistoryPage page = adventureService.getUserAdventureHistory(1L, null, 2);
+
+        assertThat(page.getAdventures()).extracting(AdventureSummary::id).containsExactly(3L, 2L);
+        assertThat(HistoryCursor.decode(page.getNextCursor())).isEqualTo(new HistoryCursor(now.minusMinutes(1), 2L));
+    }
 }
@@ -0,0 +1,137 @@
+package Adventure_generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import Adventure_generator.Entity.Adventure;
+import Adventure_generator.Entity.User;
+import Adventure_generator.Repository.AdventureRepository;
+import Adventure_generator.Repository.UserRepository;
+import Adventure_generator.Service.AdventureWriteBehind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+@Import({AdventureWriteBehind.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {
+    "adventure.write-behind.enabled=true",
+    "adventure.write-behind.batch-size=2",
+    "adventure.write-behind.flush-interval-ms=50"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the writer commits on its own thread
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD) // each test shuts the writer down
+class AdventureWriteBehindTest {
+
+    @Autowired
+    private AdventureWriteBehind writeBehind;
+
+    @Autowired
+    private AdventureRepository adventureRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void cleanUp() {
+        adventureRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("queued adventures get ids immediately and are all inserted by shutdown")
+    void enqueue_assignsIdsAndDrainsOnShutdown() {
+        User user = saveUser();
+        Adventure direct = adventureRepository.save(new Adventure("Direct", user, "happy", "clear", false));
+
+        // Detached reference, as AdventureController passes it
+        User reference = userRepository.getReferenceById(user.getId());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(writeBehind.enqueue(new Adventure("Queued " + i, reference, "happy", "clear", false)).getId());
+        }
+        ReflectionTestUtils.invokeMethod(writeBehind, "shutdown");
+
+        assertThat(ids).doesNotContainNull().doesNotHaveDuplicates().doesNotContain(direct.getId());
+        ids.add(direct.getId());
+        assertThat(adventureRepository.findByUserId(user.getId()))
+            .extracting(Adventure::getId)
+            .containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    @Test
+    @DisplayName("shutdown during a batch flush doesn't interrupt the writer or lose rows")
+    void shutdown_duringFlush_keepsAllRows() throws Exception {
+        User user = saveUser();
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        // Holds the first batch inside flush() until the test releases it
+        ReflectionTestUtils.setField(writeBehind, "jdbcTemplate", new JdbcTemplate(dataSource) {
+            @Override
+            public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                           ParameterizedPreparedStatementSetter<T> pss) {
+                flushing.countDown();
+                while (true) {
+                    try {
+                        release.await();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted.set(true);
+                    }
+                }
+                return super.batchUpdate(sql, batchArgs, batchSize, pss);
+            }
+        });
+
+        User reference = userRepository.getReferenceById(user.getId());
+        for (int i = 0; i < 3; i++) {
+            writeBehind.enqueue(new Adventure("Queued " + i, reference, "happy", "clear", false));
+        }
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread stopper = new Thread(() -> ReflectionTestUtils.invokeMethod(writeBehind, "shutdown"));
+        stopper.start();
+        while (Boolean.TRUE.equals(ReflectionTestUtils.getField(writeBehind, "accepting"))) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        stopper.join(5000);
+
+        assertThat(interrupted).isFalse();
+        assertThat(adventureRepository.findByUserId(user.getId())).hasSize(3);
+    }
+
+    private User saveUser() {
+        User user = new User();
+        user.setEmail("writer@test.com");
+        user.setUserName("writerUser");
+        user.setPassword("password");
+        user.setCreatedAt(LocalDateTime.now());
+        return userRepository.save(user);
+    }
+}
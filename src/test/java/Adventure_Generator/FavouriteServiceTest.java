@@ -0,0 +1,99 @@
+package Adventure_generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Adventure_generator.Entity.UserFavourite;
+import Adventure_generator.Exception.NotFoundException;
+import Adventure_generator.Repository.AdventureRepository;
+import Adventure_generator.Repository.UserFavoriteRepository;
+import Adventure_generator.Repository.UserRepository;
+import Adventure_generator.Service.FavouriteCacheInvalidationHook;
+import Adventure_generator.Service.FavouriteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class FavouriteServiceTest {
+
+    @Mock
+    private UserFavoriteRepository favouriteRepository;
+
+    @Mock
+    private AdventureRepository adventureRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private FavouriteService favouriteService;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(favouriteService, "maxSize", 100L);
+        ReflectionTestUtils.setField(favouriteService, "ttlMinutes", 10L);
+        ReflectionTestUtils.setField(favouriteService, "maxStatusIds", 100);
+        ReflectionTestUtils.setField(favouriteService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(favouriteService, "initCache");
+    }
+
+    @Test
+    @DisplayName("membership checks load the id set once, add/remove evict it and notify the hooks")
+    void isFavourite_servedFromCachedIdSet() {
+        List<Long> invalidated = new ArrayList<>();
+        FavouriteCacheInvalidationHook hook = invalidated::add;
+        ReflectionTestUtils.setField(favouriteService, "invalidationHooks", List.of(hook));
+        when(favouriteRepository.findAdventureIdsByUserId(1L)).thenReturn(Set.of(10L), Set.of(10L, 11L), Set.of(11L));
+        when(adventureRepository.existsByIdAndUserId(11L, 1L)).thenReturn(true);
+        when(favouriteRepository.deleteByUserIdAndAdventureId(1L, 10L)).thenReturn(1);
+
+        assertThat(favouriteService.isFavourite(1L, 10L)).isTrue();
+        assertThat(favouriteService.isFavourite(1L, 11L)).isFalse();
+        verify(favouriteRepository, times(1)).findAdventureIdsByUserId(1L);
+
+        favouriteService.addFavourite(1L, 11L);
+        assertThat(favouriteService.isFavourite(1L, 11L)).isTrue();
+        favouriteService.removeFavourite(1L, 10L);
+        assertThat(favouriteService.isFavourite(1L, 10L)).isFalse();
+
+        assertThat(invalidated).containsExactly(1L, 1L);
+        verify(favouriteRepository, times(3)).findAdventureIdsByUserId(1L);
+        verify(favouriteRepository).save(any(UserFavourite.class));
+    }
+
+    @Test
+    @DisplayName("bulk status uses one IN query when the user's set isn't cached")
+    void favouritedAmong_singleInQuery() {
+        when(favouriteRepository.findFavouritedAdventureIds(1L, List.of(1L, 2L, 3L))).thenReturn(Set.of(2L));
+
+        assertThat(favouriteService.favouritedAmong(1L, List.of(1L, 2L, 3L))).containsExactly(2L);
+        verify(favouriteRepository, never()).findAdventureIdsByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("favouriting another user's adventure is rejected")
+    void addFavourite_notOwned() {
+        when(favouriteRepository.findAdventureIdsByUserId(1L)).thenReturn(Set.of());
+        when(adventureRepository.existsByIdAndUserId(99L, 1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> favouriteService.addFavourite(1L, 99L)).isInstanceOf(NotFoundException.class);
+        verify(favouriteRepository, never()).save(any(UserFavourite.class));
+    }
+}
@@ -0,0 +1,283 @@
+package Adventure_generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import Adventure_generator.Service.GeminiAdventureService;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class GeminiAdventureServiceTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile ClientRequest lastRequest;
+
+    /** Per-call delay in millis by call number (1-based), default 50ms. */
+    private volatile IntFunction<Long> delayForCall = n -> 50L;
+
+    /** Text returned by the stubbed Gemini endpoint. */
+    private volatile String replyText = "Go stargazing together.";
+
+    private WebClient.Builder builder;
+    private GeminiAdventureService service;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        builder = WebClient.builder().exchangeFunction(request -> {
+            int call = calls.incrementAndGet();
+            lastRequest = request;
+            ClientResponse response = ClientResponse.create(HttpStatus.OK)
+                .header("Content-Type", "application/json")
+                .body(geminiBody(replyText + (replyText.contains("{") ? "" : " #" + call)))
+                .build();
+            // In flight from subscription until the response is handed on (before the caller reacts to it)
+            AtomicBoolean done = new AtomicBoolean();
+            Runnable release = () -> {
+                if (done.compareAndSet(false, true)) {
+                    inFlight.decrementAndGet();
+                }
+            };
+            return Mono.defer(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return Mono.just(response).delayElement(Duration.ofMillis(delayForCall.apply(call)));
+                })
+                .doOnEach(signal -> release.run())
+                .doOnCancel(release);
+        });
+        meterRegistry = new SimpleMeterRegistry();
+        service = newService(CircuitBreaker.ofDefaults("gemini"));
+    }
+
+    private GeminiAdventureService newService(CircuitBreaker circuitBreaker) {
+        GeminiAdventureService service = new GeminiAdventureService(builder.build(), meterRegistry, circuitBreaker);
+        ReflectionTestUtils.setField(service, "apiUrl", "http://gemini.test/generate");
+        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+        ReflectionTestUtils.setField(service, "multiMode", "fanout");
+        ReflectionTestUtils.setField(service, "multiConcurrency", 5);
+        ReflectionTestUtils.setField(service, "multiTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(service, "cacheEnabled", true);
+        ReflectionTestUtils.setField(service, "cachePoolSize", 3);
+        ReflectionTestUtils.setField(service, "cacheRefillWatermark", 2);
+        ReflectionTestUtils.setField(service, "cacheTtlMinutes", 30L);
+        ReflectionTestUtils.setField(service, "cacheMaxKeys", 4);
+        ReflectionTestUtils.setField(service, "callTimeoutMs", 1000L);
+        return service;
+    }
+
+    @Test
+    @DisplayName("API key is sent as a header, never in the URL that error messages and logs include")
+    void request_sendsApiKeyAsHeader() {
+        service.chat("hello");
+
+        assertThat(lastRequest.url().toString()).isEqualTo("http://gemini.test/generate").doesNotContain("test-key");
+        assertThat(lastRequest.headers().getFirst("x-goog-api-key")).isEqualTo("test-key");
+    }
+
+    @Test
+    @DisplayName("narration cache serves pooled narrations after the first miss")
+    void generateAdventure_servesFromNarrationPool() {
+        ReflectionTestUtils.invokeMethod(service, "initNarrationCache");
+        delayForCall = n -> 10L;
+
+        String first = service.generateAdventure("Happy", "clear", false);
+        assertThat(first).startsWith("Go stargazing together.");
+
+        // Background refill tops the pool up to pool-size
+        await(() -> calls.get() == 3);
+        int callsAfterRefill = calls.get();
+        for (int i = 0; i < 3; i++) {
+            assertThat(service.generateAdventure("happy", "CLEAR", false)).startsWith("Go stargazing together.");
+        }
+
+        assertThat(calls.get()).isEqualTo(callsAfterRefill);
+        assertThat(meterRegistry.counter("gemini.narration.cache", "result", "miss").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("gemini.narration.cache", "result", "hit").count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("concurrent cold misses on one key share a single Gemini call and refill")
+    void generateAdventure_coalescesColdMisses() {
+        ReflectionTestUtils.invokeMethod(service, "initNarrationCache");
+        delayForCall = n -> 100L;
+
+        List<String> narrations = Flux.range(0, 6)
+            .flatMap(i -> service.generateAdventureAsync("happy", "clear", false))
+            .collectList()
+            .block();
+
+        assertThat(narrations).hasSize(6).containsOnly(narrations.get(0));
+        // One miss call plus one refill of pool-size - 1
+        await(() -> calls.get() == 3);
+        assertThat(service.generateAdventure("happy", "clear", false)).isNotNull();
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("client-supplied keys beyond max-keys evict old pools instead of bypassing the cache")
+    void generateAdventure_boundsNarrationKeys() {
+        ReflectionTestUtils.setField(service, "cachePoolSize", 1);
+        ReflectionTestUtils.setField(service, "cacheRefillWatermark", 1);
+        ReflectionTestUtils.invokeMethod(service, "initNarrationCache");
+        delayForCall = n -> 0L;
+
+        for (int i = 0; i < 20; i++) {
+            service.generateAdventure("mood-" + i, "clear", false);
+        }
+        int callsBefore = calls.get();
+        service.generateAdventure("mood-19", "clear", false);
+
+        assertThat(calls.get()).isEqualTo(callsBefore);
+        await(() -> meterRegistry.get("gemini.narration.cache.keys").gauge().value() <= 4);
+    }
+
+    @Test
+    @DisplayName("fanout bypasses the narration cache")
+    void generateMultiple_bypassesNarrationPool() {
+        ReflectionTestUtils.invokeMethod(service, "initNarrationCache");
+
+        List<String> adventures = service.generateMultipleAdventures("happy", "clear", false, 3);
+
+        assertThat(adventures).hasSize(3).doesNotHaveDuplicates();
+        assertThat(meterRegistry.counter("gemini.narration.cache", "result", "miss").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("fanout issues calls concurrently, up to gemini.multi.concurrency at once")
+    void generateMultiple_fanOutRunsConcurrently() {
+        ReflectionTestUtils.setField(service, "multiConcurrency", 3);
+        delayForCall = n -> 300L;
+
+        List<String> adventures = service.generateMultipleAdventures("happy", "clear", false, 5);
+
+        assertThat(adventures).hasSize(5);
+        assertThat(calls.get()).isEqualTo(5);
+        assertThat(maxInFlight.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("fanout returns partial results when some calls time out")
+    void generateMultiple_dropsTimedOutCalls() {
+        ReflectionTestUtils.setField(service, "multiTimeoutMs", 200L);
+        delayForCall = n -> n % 2 == 0 ? 2000L : 20L;
+
+        List<String> adventures = service.generateMultipleAdventures("relaxed", "rain", false, 4);
+
+        assertThat(adventures).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("batch mode asks once and splits the JSON array")
+    void generateMultiple_batchSplitsSingleResponse() {
+        ReflectionTestUtils.setField(service, "multiMode", "batch");
+        replyText = "```json\n{\"adventures\": [\"Bake cookies\", \"Build a fort\", \"Watch a movie\"]}\n```";
+
+        List<String> adventures = service.generateMultipleAdventures("happy", "snow", false, 2);
+
+        assertThat(adventures).containsExactly("Bake cookies", "Build a fort");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("concurrent identical prompts share one Gemini call")
+    void predictMood_coalescesIdenticalPrompts() {
+        delayForCall = n -> 200L;
+        replyText = "{\"mood\": \"relaxed\", \"confidence\": 0.8, \"reason\": \"rainy evening\"}";
+
+        List<String> predictions = Flux.range(0, 10)
+            .flatMap(i -> service.predictMoodAsync("rain", "evening", "autumn"))
+            .collectList()
+            .block();
+
+        assertThat(predictions).hasSize(10).containsOnly(replyText);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("singleflight.coalesced", "name", "gemini").count()).isEqualTo(9);
+
+        // Nothing is cached once the call completed
+        service.predictMood("rain", "evening", "autumn");
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("open circuit rejects calls immediately without reaching Gemini")
+    void chat_failsFastWhenCircuitOpen() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("gemini", CircuitBreakerConfig.custom()
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofMinutes(1))
+            .build());
+        service = newService(circuitBreaker);
+        ReflectionTestUtils.setField(service, "callTimeoutMs", 100L);
+        delayForCall = n -> 2000L;
+
+        // Deadline exceeded on every call, trips the breaker (virtual time, no real waiting)
+        for (int i = 0; i < 4; i++) {
+            String prompt = "plan #" + i;
+            StepVerifier.withVirtualTime(() -> service.chatAsync(prompt))
+                .thenAwait(Duration.ofMillis(100))
+                .expectErrorSatisfies(e -> assertThat(e).hasRootCauseInstanceOf(TimeoutException.class))
+                .verify(Duration.ofSeconds(5));
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> service.chat("anything fun?")).isInstanceOf(CallNotPermittedException.class);
+        assertThat(calls.get()).isEqualTo(4);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static String geminiBody(String text) {
+        JsonObject part = new JsonObject();
+        part.addProperty("text", text);
+        JsonArray parts = new JsonArray();
+        parts.add(part);
+        JsonObject content = new JsonObject();
+        content.add("parts", parts);
+        JsonObject candidate = new JsonObject();
+        candidate.add("content", content);
+        JsonArray candidates = new JsonArray();
+        candidates.add(candidate);
+        JsonObject root = new JsonObject();
+        root.add("candidates", candidates);
+        return root.toString();
+    }
+}
@@ -3,6 +3,8 @@ package Adventure_generator;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDateTime;
@@ -10,10 +12,15 @@ import java.time.LocalDateTime;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.context.ActiveProfiles;
 
 import Adventure_generator.DTOs.Response.UserData;
 import Adventure_generator.Util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @SpringBootTest(classes = Adventure_generator.AdventureGeneratorApplication.class)
 @ActiveProfiles("test")
@@ -21,6 +28,9 @@ public class JwtUtilTest {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     public void testGenerateAndParseToken(){
         UserData userData = new UserData(1,"test@test.com", "Test", LocalDateTime.now()); 
@@ -41,7 +51,9 @@ public class JwtUtilTest {
         String token = jwtUtil.generateTokenWithCustomExpiry(userData, 1); // 1 second 
 
         Thread.sleep(2000); // for token to be expired
+        double expiredBefore = meterRegistry.counter("auth.jwt.failures", "reason", "expired").count();
         assertFalse(jwtUtil.validateToken(token, userData.getUserName()));
+        assertEquals(expiredBefore + 1, meterRegistry.counter("auth.jwt.failures", "reason", "expired").count());
     }
 
     @Test
@@ -60,4 +72,52 @@ public class JwtUtilTest {
         assertFalse(jwtUtil.validateToken(fakeToken, userData.getUserName()));
     }
 
+    @Test
+    public void testVerifyTokenIsCached(){
+        UserData userData = new UserData(1,"test@test.com", "Test", LocalDateTime.now());
+        String token = jwtUtil.generateToken(userData);
+
+        Claims first = jwtUtil.verifyToken(token);
+        Claims second = jwtUtil.verifyToken(token);
+
+        assertEquals("Test", first.getSubject());
+        assertSame(first, second); // second call served from the verified-token cache
+    }
+
+    @Test
+    public void testVerifyTokenRejectsTamperedToken(){
+        UserData userData = new UserData(1,"test@test.com", "Test", LocalDateTime.now());
+        String token = jwtUtil.generateToken(userData);
+        jwtUtil.verifyToken(token);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThrows(JwtException.class, () -> jwtUtil.verifyToken(tampered));
+    }
+
+    @Test
+    public void testRotatedKeyStillVerifies(){
+        String oldSecret = "old_secret_key_for_rotation_testing_only_must_be_at_least_512_bits_long_for_HS512_signing";
+        String newSecret = "new_secret_key_for_rotation_testing_only_must_be_at_least_512_bits_long_for_HS512_signing";
+        UserData userData = new UserData(1,"test@test.com", "Test", LocalDateTime.now());
+
+        String oldToken = newJwtUtil("2025-01", oldSecret, "").generateToken(userData);
+        JwtUtil rotated = newJwtUtil("2026-01", newSecret, "2025-01:" + oldSecret);
+        JwtUtil withoutOldKey = newJwtUtil("2026-01", newSecret, "");
+
+        assertEquals("Test", rotated.verifyToken(oldToken).getSubject());
+        assertTrue(rotated.validateToken(rotated.generateToken(userData), "Test"));
+        assertFalse(withoutOldKey.validateToken(oldToken, "Test"));
+    }
+
+    private static JwtUtil newJwtUtil(String kid, String secret, String verificationKeys){
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", secret);
+        ReflectionTestUtils.setField(util, "signingKeyId", kid);
+        ReflectionTestUtils.setField(util, "verificationKeys", verificationKeys);
+        ReflectionTestUtils.setField(util, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(util, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(util, "init");
+        return util;
+    }
+
 }
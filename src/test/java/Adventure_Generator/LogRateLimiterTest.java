@@ -0,0 +1,40 @@
+package Adventure_generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Adventure_generator.Util.LogRateLimiter;
+
+class LogRateLimiterTest {
+
+    @Test
+    @DisplayName("tryAcquire allows permitsPerSecond statements, then counts the suppressed ones")
+    void tryAcquire_limitsAndCountsSuppressed() {
+        LogRateLimiter limiter = new LogRateLimiter(3);
+
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (limiter.tryAcquire()) {
+                allowed++;
+            }
+        }
+
+        assertThat(allowed).isEqualTo(3);
+        assertThat(limiter.drainSuppressed()).isEqualTo(7);
+        assertThat(limiter.drainSuppressed()).isZero();
+    }
+
+    @Test
+    @DisplayName("permits come back once the one-second window has passed")
+    void tryAcquire_refillsAfterWindow() throws InterruptedException {
+        LogRateLimiter limiter = new LogRateLimiter(1);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        Thread.sleep(1100);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+}
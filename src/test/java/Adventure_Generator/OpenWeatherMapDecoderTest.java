@@ -0,0 +1,50 @@
+package Adventure_generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Adventure_generator.API.OpenWeatherMapDecoder;
+import Adventure_generator.DTOs.Response.WeatherResponse;
+
+class OpenWeatherMapDecoderTest {
+
+    private static final String SEATTLE = """
+        {"coord":{"lon":-122.33,"lat":47.61},
+         "weather":[{"id":500,"main":"Rain","description":"light rain","icon":"10d"},
+                    {"id":701,"main":"Mist","description":"mist","icon":"50d"}],
+         "base":"stations",
+         "main":{"temp":284.2,"feels_like":283.44,"pressure":1014,"humidity":87},
+         "wind":{"speed":3.6,"deg":190},"rain":{"1h":0.51},
+         "sys":{"country":"US","sunrise":1729262493},
+         "name":"Seattle","cod":200}
+        """;
+
+    @Test
+    @DisplayName("decode extracts the needed fields and converts Kelvin to Celsius")
+    void decode_extractsFields() {
+        WeatherResponse response = OpenWeatherMapDecoder.decode(SEATTLE.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(response.getTemperature()).isCloseTo(11.05, within(1e-9));
+        assertThat(response.getFeelLike()).isCloseTo(10.29, within(1e-9));
+        assertThat(response.getDescription()).isEqualTo("light rain");
+        assertThat(response.getIcon()).isEqualTo("10d");
+        assertThat(response.getCityName()).isEqualTo("Seattle");
+    }
+
+    @Test
+    @DisplayName("decode rejects payloads without temperatures")
+    void decode_rejectsMissingMain() {
+        byte[] body = "{\"weather\":[{\"description\":\"clear sky\",\"icon\":\"01d\"}],\"name\":\"Nowhere\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> OpenWeatherMapDecoder.decode(body))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("main.temp");
+    }
+}
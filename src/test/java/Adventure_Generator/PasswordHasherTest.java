@@ -0,0 +1,94 @@
+package Adventure_generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Adventure_generator.Exception.ServiceBusyException;
+import Adventure_generator.Service.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHasherTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseWorkers() {
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("hashes from a lower strength are flagged for rehash")
+    void needsRehash_whenStrengthIncreases() {
+        PasswordHasher weak = newHasher(4, 1, 1);
+        PasswordHasher strong = newHasher(5, 1, 1);
+
+        String hash = weak.encode("s3cret-pass");
+
+        assertThat(strong.matches("s3cret-pass", hash)).isTrue();
+        assertThat(weak.needsRehash(hash)).isFalse();
+        assertThat(strong.needsRehash(hash)).isTrue();
+    }
+
+    @Test
+    @DisplayName("saturated executor sheds requests immediately")
+    void encode_rejectsWhenSaturated() {
+        PasswordHasher hasher = newHasher(4, 1, 1);
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(hasher, "executor");
+        executor.execute(this::awaitRelease); // occupies the only worker
+        executor.execute(this::awaitRelease); // fills the queue
+        long submitted = executor.getTaskCount();
+
+        // Rejected on submit, not after waiting out the timeout
+        assertThatThrownBy(() -> hasher.encode("s3cret-pass"))
+            .isInstanceOf(ServiceBusyException.class)
+            .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(executor.getTaskCount()).isEqualTo(submitted);
+    }
+
+    @Test
+    @DisplayName("background encode doesn't wait, and is skipped while logins are queued")
+    void encodeInBackground_skipsWhenBusy() throws Exception {
+        PasswordHasher hasher = newHasher(4, 1, 2);
+        CompletableFuture<String> hash = new CompletableFuture<>();
+
+        assertThat(hasher.encodeInBackground("s3cret-pass", hash::complete)).isTrue();
+        assertThat(hasher.matches("s3cret-pass", hash.get(5, TimeUnit.SECONDS))).isTrue();
+
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(hasher, "executor");
+        executor.execute(this::awaitRelease); // occupies the only worker
+        executor.execute(this::awaitRelease); // a waiting task
+        long submitted = executor.getTaskCount();
+        assertThat(hasher.encodeInBackground("s3cret-pass", h -> {})).isFalse();
+        assertThat(executor.getTaskCount()).isEqualTo(submitted);
+    }
+
+    private PasswordHasher newHasher(int strength, int threads, int queueCapacity) {
+        PasswordHasher hasher = new PasswordHasher();
+        ReflectionTestUtils.setField(hasher, "strength", strength);
+        ReflectionTestUtils.setField(hasher, "threads", threads);
+        ReflectionTestUtils.setField(hasher, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(hasher, "waitTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(hasher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(hasher, "init");
+        return hasher;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
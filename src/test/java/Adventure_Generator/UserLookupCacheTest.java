@@ -0,0 +1,79 @@
+package Adventure_generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Adventure_generator.Entity.User;
+import Adventure_generator.Repository.UserRepository;
+import Adventure_generator.Service.UserCacheInvalidationHook;
+import Adventure_generator.Service.UserLookupCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class UserLookupCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserLookupCache userLookupCache;
+
+    private final List<String> invalidated = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(userLookupCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(userLookupCache, "ttlMinutes", 10L);
+        ReflectionTestUtils.setField(userLookupCache, "meterRegistry", new SimpleMeterRegistry());
+        UserCacheInvalidationHook hook = (userName, email) -> invalidated.add(userName + "/" + email);
+        ReflectionTestUtils.setField(userLookupCache, "invalidationHooks", List.of(hook));
+        ReflectionTestUtils.invokeMethod(userLookupCache, "initCaches");
+    }
+
+    @Test
+    @DisplayName("repeated lookups are served from the cache")
+    void findByEmail_readsThrough() {
+        when(userRepository.findByEmail("cache@test.com")).thenReturn(Optional.of(buildUser()));
+
+        Optional<UserLookupCache.CachedUser> first = userLookupCache.findByEmail("Cache@Test.com");
+        Optional<UserLookupCache.CachedUser> second = userLookupCache.findByEmail("cache@test.com");
+
+        assertThat(first).isPresent();
+        assertThat(second.get().id()).isEqualTo(3L);
+        assertThat(second.get().userName()).isEqualTo("cacheUser");
+        verify(userRepository, times(1)).findByEmail("cache@test.com");
+    }
+
+    @Test
+    @DisplayName("invalidate evicts locally and notifies hooks")
+    void invalidate_evictsAndNotifiesHooks() {
+        when(userRepository.findByUserName("cacheUser")).thenReturn(Optional.of(buildUser()));
+        userLookupCache.findByUserName("cacheUser");
+
+        userLookupCache.invalidate("cacheUser", "cache@test.com");
+        userLookupCache.findByUserName("cacheUser");
+
+        verify(userRepository, times(2)).findByUserName("cacheUser");
+        assertThat(invalidated).containsExactly("cacheUser/cache@test.com");
+    }
+
+    private static User buildUser() {
+        return new User(3L, "cache@test.com", "cacheUser", "hash", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,98 @@
+package Adventure_generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Adventure_generator.API.WeatherApiClient;
+import Adventure_generator.DTOs.Response.WeatherResponse;
+import Adventure_generator.Service.WeatherService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class WeatherServiceTest {
+
+    @Mock
+    private WeatherApiClient weatherApiClient;
+
+    @InjectMocks
+    private WeatherService weatherService;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(weatherService, "cachePrecision", 2);
+        ReflectionTestUtils.setField(weatherService, "cacheRefreshMinutes", 5L);
+        ReflectionTestUtils.setField(weatherService, "cacheTtlMinutes", 10L);
+        ReflectionTestUtils.setField(weatherService, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(weatherService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(weatherService, "initWeatherCache");
+    }
+
+    @Test
+    @DisplayName("nearby coordinates in the same cell share one API call")
+    void getCurrentWeather_cachesPerCell() {
+        WeatherResponse seattle = new WeatherResponse(12.0, "light rain", "Seattle", "10d", 11.0);
+        when(weatherApiClient.getWeatherByCoordinatesAsync(new BigDecimal("47.61"), new BigDecimal("-122.33")))
+            .thenReturn(Mono.just(seattle));
+
+        WeatherResponse first = weatherService.getCurrentWeather(47.6062, -122.3321);
+        WeatherResponse second = weatherService.getCurrentWeather(47.6104, -122.3349);
+
+        assertThat(first).isSameAs(seattle);
+        assertThat(second).isSameAs(seattle);
+        verify(weatherApiClient, times(1)).getWeatherByCoordinatesAsync(any(BigDecimal.class), any(BigDecimal.class));
+    }
+
+    @Test
+    @DisplayName("a failed API call surfaces its exception and isn't cached")
+    void getCurrentWeather_failedLoadNotCached() {
+        WeatherResponse seattle = new WeatherResponse(12.0, "light rain", "Seattle", "10d", 11.0);
+        when(weatherApiClient.getWeatherByCoordinatesAsync(new BigDecimal("47.61"), new BigDecimal("-122.33")))
+            .thenReturn(Mono.error(new IllegalStateException("Empty response from OpenWeatherMap")))
+            .thenReturn(Mono.just(seattle));
+
+        assertThatThrownBy(() -> weatherService.getCurrentWeather(47.6062, -122.3321))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(weatherService.getCurrentWeather(47.6062, -122.3321)).isSameAs(seattle);
+    }
+
+    @Test
+    @DisplayName("invalid coordinates are rejected before hitting the cache")
+    void getCurrentWeather_rejectsInvalidCoordinates() {
+        assertThatThrownBy(() -> weatherService.getCurrentWeather(91, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> weatherService.getCurrentWeather(Double.NaN, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> weatherService.getCurrentWeather(0, Double.POSITIVE_INFINITY))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(weatherApiClient);
+    }
+
+    @Test
+    @DisplayName("the API is queried with the cell coordinates at the cache precision")
+    void getCurrentWeather_queriesCellAtCachePrecision() {
+        ReflectionTestUtils.setField(weatherService, "cachePrecision", 3);
+        ReflectionTestUtils.invokeMethod(weatherService, "initWeatherCache");
+        WeatherResponse seattle = new WeatherResponse(12.0, "light rain", "Seattle", "10d", 11.0);
+        when(weatherApiClient.getWeatherByCoordinatesAsync(new BigDecimal("47.606"), new BigDecimal("-122.332")))
+            .thenReturn(Mono.just(seattle));
+
+        assertThat(weatherService.getCurrentWeather(47.6062, -122.3321)).isSameAs(seattle);
+    }
+}